@@ -0,0 +1,96 @@
+package airline;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BookingBenchmark {
+    private static final int BOOKINGS = 1 << 12;
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private Dataset dataset;
+    private int[] flightIds;
+    private Client[] clients;
+    private BookingEngine shared;
+    private Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = Dataset.generate(size);
+        Random random = new Random(size);
+        flightIds = dataset.sampleFlightIds(random, BOOKINGS);
+        clients = dataset.sampleClients(random, BOOKINGS);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        shared = new BookingEngine(dataset.airplane, dataset.route, dataset.flight);
+        statistics = new Statistics(dataset.airplane, dataset.flight, shared);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+        private int step;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threads) {
+            index = threads.getThreadIndex();
+            step = threads.getThreadCount();
+        }
+
+        int next() {
+            int current = index;
+            index = (index + step) & (BOOKINGS - 1);
+            return current;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public void book(Blackhole blackhole) {
+        BookingEngine bookingEngine = new BookingEngine(dataset.airplane, dataset.route, dataset.flight);
+        for (int i = 0; i < BOOKINGS; i++) {
+            blackhole.consume(bookingEngine.book(flightIds[i], clients[i]));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Ticket bookConcurrent(Cursor cursor) {
+        int i = cursor.next();
+        return shared.book(flightIds[i], clients[i]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long bookWithStatistics(Cursor cursor) {
+        int i = cursor.next();
+        shared.book(flightIds[i], clients[i]);
+        return statistics.getTotalTickets();
+    }
+}
@@ -0,0 +1,64 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class Dataset {
+    Airport airport;
+    Airplane airplane;
+    Route route;
+    Flight flight;
+    BookingEngine bookingEngine;
+    ClientRegistry clients;
+
+    Dataset() {
+        airport = new Airport();
+        airplane = new Airplane(airport);
+        route = new Route(airport, airplane);
+        flight = new Flight(route);
+        bookingEngine = new BookingEngine(airplane, route, flight);
+        clients = new ClientRegistry(bookingEngine);
+    }
+
+    static Dataset generate(int ticketCount) {
+        Log.setLevel(Log.Level.OFF);
+        Dataset dataset = new Dataset();
+        DataGenerator.generate(ticketCount, 42, dataset.airport, dataset.airplane, dataset.route, dataset.flight, dataset.clients, dataset.bookingEngine);
+        return dataset;
+    }
+
+    List<String> airplaneNames() {
+        List<String> names = new ArrayList<>();
+        for (Airplane.AirplaneDetails airplaneDetails : airplane.getAirplanes()) {
+            names.add(airplaneDetails.getName());
+        }
+        return names;
+    }
+
+    int[] sampleFlightIds(Random random, int count) {
+        List<Flight.FlightDetails> flights = new ArrayList<>(flight.getFlights());
+        int[] flightIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            flightIds[i] = flights.get(random.nextInt(flights.size())).getId();
+        }
+        return flightIds;
+    }
+
+    Client[] sampleClients(Random random, int count) {
+        List<Client> all = new ArrayList<>(clients.getClients());
+        Client[] sample = new Client[count];
+        for (int i = 0; i < count; i++) {
+            sample[i] = all.get(random.nextInt(all.size()));
+        }
+        return sample;
+    }
+
+    static String[] sample(List<String> values, Random random, int count) {
+        String[] sample = new String[count];
+        for (int i = 0; i < count; i++) {
+            sample[i] = values.get(random.nextInt(values.size()));
+        }
+        return sample;
+    }
+}
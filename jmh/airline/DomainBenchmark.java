@@ -0,0 +1,86 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DomainBenchmark {
+    private static final int KEYS = 1 << 14;
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private Dataset dataset;
+    private FareEngine fareEngine;
+    private String[] airplaneKeys;
+    private String[] airportKeys;
+    private String[] routeKeys;
+    private int[] flightIds;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = Dataset.generate(size);
+        fareEngine = new FareEngine(dataset.airplane, dataset.route, dataset.flight, dataset.bookingEngine);
+        Random random = new Random(size);
+        airplaneKeys = Dataset.sample(dataset.airplaneNames(), random, KEYS);
+        airportKeys = Dataset.sample(new ArrayList<>(dataset.airport.getAirports()), random, KEYS);
+        for (int i = 0; i < airportKeys.length; i += 2) {
+            airportKeys[i] = airportKeys[i] + " (missing)";
+        }
+        List<String> routeNames = dataset.route.getRoutes();
+        routeKeys = Dataset.sample(routeNames, random, KEYS);
+        flightIds = dataset.sampleFlightIds(random, KEYS);
+    }
+
+    private int next() {
+        return index++ & (KEYS - 1);
+    }
+
+    @Benchmark
+    public Airplane.AirplaneDetails getAirplaneDetails() {
+        return dataset.airplane.getAirplaneDetails(airplaneKeys[next()]);
+    }
+
+    @Benchmark
+    public boolean existsAirport() {
+        return dataset.airport.existsAirport(airportKeys[next()]);
+    }
+
+    @Benchmark
+    public Result createRouteRejectsDuplicate() {
+        String key = routeKeys[next()];
+        Route route = dataset.route;
+        return route.createRoute(route.getDepartureAirport(key), route.getArrivalAirport(key), route.getDistance(key), route.getAirplane(key));
+    }
+
+    @Benchmark
+    public String flightRoute() {
+        return dataset.flight.getFlightDetails(flightIds[next()]).getRoute();
+    }
+
+    @Benchmark
+    public long quoteCached() {
+        return fareEngine.quote(flightIds[next()]).getPrice(FareEngine.FareClass.STANDARD);
+    }
+}
@@ -0,0 +1,101 @@
+package airline;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Reports the heap a loaded snapshot retains as the retainedBytes counter. "strings" additionally keeps the
+// per-flight name copies (route, departure, arrival, airplane) that FlightDetails held before the symbol table,
+// so the difference between the two rows is what interning saves.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(2)
+public class FootprintBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"symbols", "strings"})
+    public String names;
+
+    private Path snapshot;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Dataset dataset = Dataset.generate(size);
+        snapshot = Files.createTempFile("airline-footprint", ".txt");
+        Main.writeSnapshot(snapshot.toString(), dataset.airport, dataset.airplane, dataset.route, dataset.flight, dataset.clients, dataset.bookingEngine, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public long load(Heap heap) throws IOException {
+        long before = usedHeap();
+        Dataset loaded = new Dataset();
+        Main.readSnapshot(snapshot.toString(), loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine);
+        List<String> copies = names.equals("strings") ? copyNames(loaded) : null;
+        heap.retainedBytes = usedHeap() - before;
+        Reference.reachabilityFence(loaded);
+        Reference.reachabilityFence(copies);
+        return heap.retainedBytes;
+    }
+
+    private static List<String> copyNames(Dataset dataset) {
+        List<String> copies = new ArrayList<>(dataset.flight.getFlights().size() * 4);
+        for (Flight.FlightDetails flightDetails : dataset.flight.getFlights()) {
+            copies.add(copy(flightDetails.getRoute()));
+            copies.add(copy(flightDetails.getDepartureAirport()));
+            copies.add(copy(flightDetails.getArrivalAirport()));
+            copies.add(copy(flightDetails.getAirplane()));
+        }
+        return copies;
+    }
+
+    private static String copy(String name) {
+        return name != null ? new String(name) : null;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,62 @@
+package airline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SnapshotBenchmark {
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"txt", "bin"})
+    public String format;
+
+    private Dataset dataset;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataset = Dataset.generate(size);
+        snapshot = Files.createTempFile("airline-bench", "." + format);
+        save();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public Path save() throws IOException {
+        Main.writeSnapshot(snapshot.toString(), dataset.airport, dataset.airplane, dataset.route, dataset.flight, dataset.clients, dataset.bookingEngine, 0);
+        return snapshot;
+    }
+
+    @Benchmark
+    public Dataset load() throws IOException {
+        Dataset loaded = new Dataset();
+        Main.readSnapshot(snapshot.toString(), loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine);
+        return loaded;
+    }
+}
@@ -0,0 +1,191 @@
+package airline;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.HashMap;
+
+class Airplane {
+    private Map<String, AirplaneDetails> airplanes;
+    private Map<String, Map<String, AirplaneDetails>> airportToAirplaneDetails;
+    private Airport airport;
+    private Route route;
+    private SymbolTable symbols;
+    private Journal journal;
+    private int version;
+
+    public Airplane(Airport airport) {
+        airplanes = new LinkedHashMap<>();
+        airportToAirplaneDetails = new HashMap<>();
+        this.airport = airport;
+        symbols = airport.getSymbols();
+        airport.setAirplane(this);
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public void setRoute(Route route) {
+        this.route = route;
+    }
+
+    public Result createAirplane(String name, int seatCount, int range, String airportName) {
+        long started = Metrics.CREATE_AIRPLANE.start();
+        if (!airport.existsAirport(airportName)) {
+            Log.error("Error: The specified airport does not exist.");
+            return Result.NOT_FOUND;
+        }
+
+        if (airplanes.containsKey(name)) {
+            Log.error("Error: Airplane with the same name already exists.");
+            return Result.CONFLICT;
+        }
+
+        AirplaneDetails airplane = new AirplaneDetails(name, seatCount, range, airportName);
+        airplanes.put(airplane.getName(), airplane);
+        airportToAirplaneDetails.computeIfAbsent(airplane.getAirportName(), k -> new LinkedHashMap<>()).put(airplane.getName(), airplane);
+        airport.addAirplaneToAirport(airportName, name);
+        version++;
+        if (journal != null) {
+            journal.record(Journal.CREATE_AIRPLANE, name, seatCount, range, airportName);
+        }
+        Metrics.CREATE_AIRPLANE.stop(started);
+        Log.info("Airplane created: {}", airplane);
+        return Result.OK;
+    }
+
+    public AirplaneDetails loadAirplane(String name, int seatCount, int range, String airportName) {
+        AirplaneDetails airplane = new AirplaneDetails(name, seatCount, range, airportName);
+        airplanes.put(airplane.getName(), airplane);
+        airportToAirplaneDetails.computeIfAbsent(airplane.getAirportName(), k -> new LinkedHashMap<>()).put(airplane.getName(), airplane);
+        airport.loadAirplaneToAirport(airportName, name);
+        version++;
+        return airplane;
+    }
+
+    public void prepareBulkLoad(int airplaneCount) {
+        if (airplanes.isEmpty()) {
+            airplanes = LinkedHashMap.newLinkedHashMap(airplaneCount);
+        }
+    }
+
+
+    public Result deleteAirplane(String name) {
+        long started = Metrics.DELETE_AIRPLANE.start();
+        if (route != null && route.isAssigned(name)) {
+            Log.error("Error: Airplane {} is assigned to a route. Release it first.", name);
+            return Result.CONFLICT;
+        }
+        AirplaneDetails airplaneToDelete = airplanes.remove(name);
+
+        if (airplaneToDelete != null) {
+            version++;
+            String airportName = airplaneToDelete.getAirportName();
+            Map<String, AirplaneDetails> airportAirplanes = airportToAirplaneDetails.get(airportName);
+            if (airportAirplanes != null) {
+                airportAirplanes.remove(name);
+                if (airportAirplanes.isEmpty()) {
+                    airportToAirplaneDetails.remove(airportName);
+                }
+            }
+            airport.removeAirplaneFromAirport(airportName, name);
+            if (journal != null) {
+                journal.record(Journal.DELETE_AIRPLANE, name);
+            }
+            Metrics.DELETE_AIRPLANE.stop(started);
+            Log.info("Airplane deleted: {}", airplaneToDelete);
+            return Result.OK;
+        } else {
+            Log.error("Airplane not found.");
+            return Result.NOT_FOUND;
+        }
+    }
+
+    public void deleteAirplanesAt(String airportName) {
+        Map<String, AirplaneDetails> airportAirplanes = airportToAirplaneDetails.remove(airportName);
+        if (airportAirplanes == null) {
+            return;
+        }
+        version++;
+
+        for (AirplaneDetails airplaneToDelete : airportAirplanes.values()) {
+            airplanes.remove(airplaneToDelete.getName());
+            airport.removeAirplaneFromAirport(airportName, airplaneToDelete.getName());
+            Log.info("Airplane deleted: {}", airplaneToDelete);
+        }
+    }
+
+    public void viewAirplanes() {
+        System.out.println("Airplanes:");
+        for (AirplaneDetails airplane : airplanes.values()) {
+            System.out.println(airplane);
+        }
+    }
+
+    public AirplaneDetails getAirplaneDetails(String airplaneName) {
+        return airplanes.get(airplaneName);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public boolean existsAirplane(String airplaneName) {
+        return airplanes.containsKey(airplaneName);
+    }
+
+    public Collection<AirplaneDetails> getAirplanes() {
+        return airplanes.values();
+    }
+
+    public Collection<AirplaneDetails> getAirplanesAt(String airportName) {
+        Map<String, AirplaneDetails> airportAirplanes = airportToAirplaneDetails.get(airportName);
+        if (airportAirplanes == null) {
+            return Collections.emptyList();
+        }
+        return airportAirplanes.values();
+    }
+
+    public class AirplaneDetails {
+        private String name;
+        private int seatCount;
+        private int range;
+        private int airportId;
+
+        public AirplaneDetails(String name, int seatCount, int range, String airportName) {
+            this.name = symbols.canonical(name);
+            this.seatCount = seatCount;
+            this.range = range;
+            this.airportId = symbols.intern(airportName);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSeatCount() {
+            return seatCount;
+        }
+
+        public int getRange() {
+            return range;
+        }
+
+        public String getAirportName() {
+            return symbols.name(airportId);
+        }
+
+        @Override
+        public String toString() {
+            return "Name: " + name + ", Seats: " + seatCount + ", Range: " + range + " km";
+        }
+    }
+
+    public void clear() {
+        airplanes.clear();
+        airportToAirplaneDetails.clear();
+        version++;
+    }
+}
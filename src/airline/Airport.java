@@ -0,0 +1,158 @@
+package airline;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+class Airport {
+    private Set<String> airports;
+    private Map<String, Set<String>> airportToAirplanes;
+    private Airplane airplane;
+    private Route route;
+    private Journal journal;
+    private SymbolTable symbols;
+
+
+    public Airport() {
+        airports = new LinkedHashSet<>();
+        airportToAirplanes = new HashMap<>();
+        symbols = new SymbolTable();
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public void setAirplane(Airplane airplane) {
+        this.airplane = airplane;
+    }
+
+    public void setRoute(Route route) {
+        this.route = route;
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public Result createAirport(String airportName) {
+        long started = Metrics.CREATE_AIRPORT.start();
+        if (airports.contains(airportName)) {
+            Log.error("Error: Airport with the same name already exists.");
+            return Result.CONFLICT;
+        }
+
+        loadAirport(airportName);
+        if (journal != null) {
+            journal.record(Journal.CREATE_AIRPORT, airportName);
+        }
+        Metrics.CREATE_AIRPORT.stop(started);
+        Log.info("Airport created: {}", airportName);
+        return Result.OK;
+    }
+
+    public void loadAirport(String airportName) {
+        airportName = symbols.canonical(airportName);
+        if (airports.add(airportName)) {
+            airportToAirplanes.put(airportName, new LinkedHashSet<>());
+        }
+    }
+
+    public void prepareBulkLoad(int airportCount) {
+        if (airports.isEmpty()) {
+            airports = LinkedHashSet.newLinkedHashSet(airportCount);
+            airportToAirplanes = HashMap.newHashMap(airportCount);
+        }
+    }
+
+    public Result deleteAirport(String airport) {
+        long started = Metrics.DELETE_AIRPORT.start();
+        if (!airports.contains(airport)) {
+            Log.error("Error: Airport not found.");
+            return Result.NOT_FOUND;
+        }
+
+        if (route != null) {
+            route.deleteRoutesForAirport(airport);
+        }
+        if (airplane != null) {
+            airplane.deleteAirplanesAt(airport);
+        }
+
+        airports.remove(airport);
+        airportToAirplanes.remove(airport);
+        if (journal != null) {
+            journal.record(Journal.DELETE_AIRPORT, airport);
+        }
+        Metrics.DELETE_AIRPORT.stop(started);
+        Log.info("Airport deleted: {}", airport);
+        return Result.OK;
+    }
+
+    public void viewAirports() {
+        System.out.println("Airports:");
+        for (String airport : airports) {
+            System.out.println("Airport: " + airport);
+            Set<String> airplanes = airportToAirplanes.get(airport);
+            if (airplanes != null && !airplanes.isEmpty()) {
+                System.out.println("  Associated Airplanes:");
+                for (String airplane : airplanes) {
+                    System.out.println("    " + airplane);
+                }
+            } else {
+                System.out.println("  No airplanes associated.");
+            }
+        }
+    }
+
+
+
+    public void addAirplaneToAirport(String airport, String airplane) {
+        Set<String> airplanes = airportToAirplanes.get(airport);
+        if (airplanes != null) {
+            airplanes.add(symbols.canonical(airplane));
+            Log.info("Airplane associated with the airport.");
+        } else {
+            Log.error("Error: Airport not found.");
+        }
+    }
+
+    public void loadAirplaneToAirport(String airport, String airplane) {
+        Set<String> airplanes = airportToAirplanes.get(airport);
+        if (airplanes != null) {
+            airplanes.add(symbols.canonical(airplane));
+        }
+    }
+
+    public boolean hasAirplanes(String airportName) {
+        Set<String> airplanes = airportToAirplanes.get(airportName);
+        return airplanes != null && !airplanes.isEmpty();
+    }
+
+    public void removeAirplaneFromAirport(String airport, String airplane) {
+        Set<String> airplanes = airportToAirplanes.get(airport);
+        if (airplanes != null) {
+            airplanes.remove(airplane);
+        } else {
+            Log.error("Error: Airport not found.");
+        }
+    }
+
+    public boolean existsAirport(String airportName) {
+        return airports.contains(airportName);
+    }
+
+    public Set<String> getAirplanes(String airportName) {
+        return airportToAirplanes.get(airportName);
+    }
+    public Set<String> getAirports() {
+        return airports;
+    }
+
+    public void clear() {
+        airports.clear();
+        airportToAirplanes.clear();
+    }
+
+}
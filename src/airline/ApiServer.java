@@ -0,0 +1,776 @@
+package airline;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class ApiServer {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_SIZE = 1 << 16;
+
+    private Airport airport;
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+    private ClientRegistry clients;
+    private BookingEngine bookingEngine;
+    private ConnectionSearch connectionSearch;
+    private FareEngine fareEngine;
+    private Journal journal;
+    private ReadWriteLock lock;
+    private HttpServer server;
+    private ExecutorService executor;
+    private AtomicBoolean compacting;
+
+    public ApiServer(Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine, ConnectionSearch connectionSearch, FareEngine fareEngine, Journal journal) {
+        this.airport = airport;
+        this.airplane = airplane;
+        this.route = route;
+        this.flight = flight;
+        this.clients = clients;
+        this.bookingEngine = bookingEngine;
+        this.connectionSearch = connectionSearch;
+        this.fareEngine = fareEngine;
+        this.journal = journal;
+        lock = new ReentrantReadWriteLock();
+        compacting = new AtomicBoolean();
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 4096);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/airports", exchange -> handle(exchange, this::airports));
+        server.createContext("/airplanes", exchange -> handle(exchange, this::airplanes));
+        server.createContext("/routes", exchange -> handle(exchange, this::routes));
+        server.createContext("/flights", exchange -> handle(exchange, this::flights));
+        server.createContext("/clients", exchange -> handle(exchange, this::clients));
+        server.createContext("/tickets", exchange -> handle(exchange, this::tickets));
+        server.createContext("/itineraries", exchange -> handle(exchange, this::itineraries));
+        server.createContext("/connections", exchange -> handle(exchange, this::connections));
+        server.createContext("/fares", exchange -> handle(exchange, this::fares));
+        server.createContext("/metrics", this::metrics);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.close();
+        }
+    }
+
+    private void airports(Request request) throws IOException {
+        switch (request.method) {
+            case "GET":
+                Map<String, List<String>> airports = readLocked(() -> {
+                    Map<String, List<String>> copy = new LinkedHashMap<>();
+                    for (String airportName : airport.getAirports()) {
+                        copy.put(airportName, new ArrayList<>(airport.getAirplanes(airportName)));
+                    }
+                    return copy;
+                });
+                JsonWriter json = request.respond(200).beginArray();
+                for (Map.Entry<String, List<String>> entry : airports.entrySet()) {
+                    json.beginObject().field("name", entry.getKey()).name("airplanes").beginArray();
+                    for (String airplaneName : entry.getValue()) {
+                        json.value(airplaneName);
+                    }
+                    json.endArray().endObject();
+                }
+                json.endArray();
+                break;
+            case "POST":
+                String name = request.param("name");
+                mutate(request, 201, () -> airport.createAirport(name));
+                break;
+            case "DELETE":
+                String airportToDelete = request.param("name");
+                mutate(request, 200, () -> airport.deleteAirport(airportToDelete));
+                break;
+            default:
+                request.methodNotAllowed();
+        }
+    }
+
+    private void airplanes(Request request) throws IOException {
+        switch (request.method) {
+            case "GET":
+                String airportName = request.optional("airport");
+                List<Airplane.AirplaneDetails> airplanes = readLocked(() -> new ArrayList<>(airportName != null ? airplane.getAirplanesAt(airportName) : airplane.getAirplanes()));
+                JsonWriter json = request.respond(200).beginArray();
+                for (Airplane.AirplaneDetails airplaneDetails : airplanes) {
+                    writeAirplane(json, airplaneDetails);
+                }
+                json.endArray();
+                break;
+            case "POST":
+                String name = request.param("name");
+                int seatCount = request.intParam("seats");
+                int range = request.intParam("range");
+                String airplaneAirport = request.param("airport");
+                mutate(request, 201, () -> airplane.createAirplane(name, seatCount, range, airplaneAirport));
+                break;
+            case "DELETE":
+                String airplaneToDelete = request.param("name");
+                mutate(request, 200, () -> airplane.deleteAirplane(airplaneToDelete));
+                break;
+            default:
+                request.methodNotAllowed();
+        }
+    }
+
+    private void routes(Request request) throws IOException {
+        switch (request.method) {
+            case "GET":
+                List<RouteView> routes = readLocked(() -> {
+                    List<RouteView> copy = new ArrayList<>();
+                    for (String routeName : route.getRoutes()) {
+                        copy.add(new RouteView(routeName));
+                    }
+                    return copy;
+                });
+                JsonWriter json = request.respond(200).beginArray();
+                for (RouteView routeView : routes) {
+                    writeRoute(json, routeView);
+                }
+                json.endArray();
+                break;
+            case "POST":
+                String departureAirport = request.param("departure");
+                String arrivalAirport = request.param("arrival");
+                int distance = request.intParam("distance");
+                String airplaneName = request.param("airplane");
+                mutate(request, 201, () -> route.createRoute(departureAirport, arrivalAirport, distance, airplaneName));
+                break;
+            case "DELETE":
+                String routeToDelete = request.param("name");
+                mutate(request, 200, () -> route.deleteRoute(routeToDelete));
+                break;
+            default:
+                request.methodNotAllowed();
+        }
+    }
+
+    private void flights(Request request) throws IOException {
+        switch (request.method) {
+            case "GET":
+                String airportName = request.optional("airport");
+                String date = request.optional("date");
+                String routeName = request.optional("route");
+                String after = request.optional("after");
+                int limit = Math.min(MAX_PAGE_SIZE, request.optional("limit") != null ? request.intParam("limit") : DEFAULT_PAGE_SIZE);
+                List<FlightView> page = readLocked(() -> {
+                    NavigableSet<Flight.FlightDetails> index;
+                    if (airportName != null && date != null) {
+                        index = flight.getDepartures(airportName, parseDate(date));
+                    } else if (airportName != null) {
+                        index = flight.getDepartures(airportName);
+                    } else if (routeName != null) {
+                        index = flight.getFlightsForRoute(routeName);
+                    } else {
+                        index = flight.getFlightsByDeparture();
+                    }
+
+                    Flight.FlightDetails last = after != null ? flight.getFlightDetails(Integer.parseInt(after)) : null;
+                    return copyFlights(flight.page(index, last, limit));
+                });
+                JsonWriter json = request.respond(200).beginArray();
+                for (FlightView flightView : page) {
+                    writeFlight(json, flightView);
+                }
+                json.endArray();
+                break;
+            case "POST":
+                String flightName = request.param("name");
+                String flightRoute = request.param("route");
+                LocalDateTime departure = request.dateTimeParam("departure");
+                LocalDateTime arrival = request.dateTimeParam("arrival");
+                FlightView[] created = new FlightView[1];
+                Result result = writeLocked(() -> {
+                    Flight.FlightDetails flightDetails = flight.createFlight(flightName, flightRoute, departure, arrival);
+                    if (flightDetails == null) {
+                        return route.getDepartureAirport(flightRoute) == null ? Result.NOT_FOUND : Result.CONFLICT;
+                    }
+                    created[0] = new FlightView(flightDetails);
+                    return Result.OK;
+                });
+                if (result != Result.OK) {
+                    request.respondResult(result, 201);
+                    return;
+                }
+                if (!awaitDurable(request)) {
+                    return;
+                }
+                writeFlight(request.respond(201), created[0]);
+                break;
+            case "DELETE":
+                int flightId = request.intParam("id");
+                mutate(request, 200, () -> flight.deleteFlight(flightId));
+                break;
+            default:
+                request.methodNotAllowed();
+        }
+    }
+
+    private void clients(Request request) throws IOException {
+        switch (request.method) {
+            case "GET":
+                String id = request.optional("id");
+                String name = request.optional("name");
+                String phone = request.optional("phone");
+                if (id == null && name == null && phone == null) {
+                    List<Client> all = readLocked(() -> new ArrayList<>(clients.getClients()));
+                    JsonWriter json = request.respond(200).beginArray();
+                    for (Client client : all) {
+                        writeClient(json, client, null);
+                    }
+                    json.endArray();
+                    return;
+                }
+
+                Client client = readLocked(() -> id != null ? clients.getClient(Integer.parseInt(id)) : name != null ? clients.findByName(name) : clients.findByPhone(phone));
+                if (client == null) {
+                    request.error(404, "Client not found.");
+                    return;
+                }
+                writeClient(request.respond(200), client, copyTickets(client));
+                break;
+            case "POST":
+                String clientName = request.param("name");
+                String clientPhone = request.param("phone");
+                boolean isCompany = Boolean.parseBoolean(request.optional("company"));
+                int airplaneCount = request.optional("airplanes") != null ? request.intParam("airplanes") : 0;
+                Client[] created = new Client[1];
+                Result result = writeLocked(() -> (created[0] = clients.createClient(clientName, clientPhone, isCompany, airplaneCount)) != null ? Result.OK : Result.CONFLICT);
+                if (result != Result.OK) {
+                    request.respondResult(result, 201);
+                    return;
+                }
+                if (!awaitDurable(request)) {
+                    return;
+                }
+                writeClient(request.respond(201), created[0], null);
+                break;
+            case "DELETE":
+                int clientId = request.intParam("id");
+                mutate(request, 200, () -> clients.deleteClient(clientId));
+                break;
+            default:
+                request.methodNotAllowed();
+        }
+    }
+
+    private void tickets(Request request) throws IOException {
+        switch (request.method) {
+            case "GET":
+                int clientId = request.intParam("client");
+                List<Ticket> tickets = readLocked(() -> {
+                    Client client = clients.getClient(clientId);
+                    return client != null ? copyTickets(client) : null;
+                });
+                if (tickets == null) {
+                    request.error(404, "Client not found.");
+                    return;
+                }
+                JsonWriter json = request.respond(200).beginArray();
+                for (Ticket ticket : tickets) {
+                    writeTicket(json, ticket);
+                }
+                json.endArray();
+                break;
+            case "POST":
+                int flightId = request.intParam("flight");
+                int bookingClientId = request.intParam("client");
+                String seat = request.optional("seat");
+                Ticket[] booked = new Ticket[1];
+                Result result = readLocked(() -> {
+                    Client client = clients.getClient(bookingClientId);
+                    if (client == null) {
+                        Log.error("Error: Client not found.");
+                        return Result.NOT_FOUND;
+                    }
+                    booked[0] = bookingEngine.book(flightId, client, seat != null ? seat.toUpperCase() : null);
+                    if (booked[0] == null) {
+                        return flight.getFlightDetails(flightId) == null ? Result.NOT_FOUND : Result.CONFLICT;
+                    }
+                    return Result.OK;
+                });
+                if (result != Result.OK) {
+                    request.respondResult(result, 201);
+                    return;
+                }
+                if (!awaitDurable(request)) {
+                    return;
+                }
+                writeTicket(request.respond(201), booked[0]);
+                break;
+            default:
+                request.methodNotAllowed();
+        }
+    }
+
+    private void itineraries(Request request) throws IOException {
+        if (!request.method.equals("GET")) {
+            request.methodNotAllowed();
+            return;
+        }
+
+        String from = request.param("from");
+        String to = request.param("to");
+        int count = request.optional("count") != null ? request.intParam("count") : 1;
+        List<RouteGraph.Itinerary> itineraries = readLocked(() -> route.getRouteGraph().kShortestItineraries(from, to, Math.min(count, 20)));
+        JsonWriter json = request.respond(200).beginArray();
+        for (RouteGraph.Itinerary itinerary : itineraries) {
+            json.beginObject().field("distance", itinerary.getDistance()).name("airports").beginArray();
+            for (String airportName : itinerary.getAirports()) {
+                json.value(airportName);
+            }
+            json.endArray().name("routes").beginArray();
+            for (String routeName : itinerary.getRoutes()) {
+                json.value(routeName);
+            }
+            json.endArray().endObject();
+        }
+        json.endArray();
+    }
+
+    private void connections(Request request) throws IOException {
+        if (!request.method.equals("GET")) {
+            request.methodNotAllowed();
+            return;
+        }
+
+        String from = request.param("from");
+        String to = request.param("to");
+        LocalDateTime after = request.dateTimeParam("after");
+        int seats = request.optional("seats") != null ? request.intParam("seats") : 1;
+        JourneyView[] journeys = readLocked(() -> {
+            ConnectionSearch.Journey earliest = connectionSearch.earliestArrival(from, to, after, seats);
+            ConnectionSearch.Journey fewestTransfers = earliest != null ? connectionSearch.fewestTransfers(from, to, after, seats) : null;
+            return new JourneyView[]{copyJourney(earliest), copyJourney(fewestTransfers)};
+        });
+        JsonWriter json = request.respond(200).beginObject().name("earliestArrival");
+        writeJourney(json, journeys[0]);
+        json.name("fewestTransfers");
+        writeJourney(json, journeys[1]);
+        json.endObject();
+    }
+
+    private void fares(Request request) throws IOException {
+        if (!request.method.equals("GET")) {
+            request.methodNotAllowed();
+            return;
+        }
+
+        List<Integer> flightIds = new ArrayList<>();
+        for (String flightId : request.param("flights").split(",")) {
+            try {
+                flightIds.add(Integer.parseInt(flightId.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Parameter flights must be a list of numbers.");
+            }
+        }
+        Map<Integer, FareEngine.Quote> quotes = readLocked(() -> fareEngine.quote(flightIds));
+        JsonWriter json = request.respond(200).beginArray();
+        for (FareEngine.Quote quote : quotes.values()) {
+            json.beginObject()
+                    .field("flight", quote.getFlightId())
+                    .field("loadFactor", quote.getLoadFactor())
+                    .field("daysToDeparture", quote.getDaysToDeparture())
+                    .name("fares").beginArray();
+            for (FareEngine.FareClass fareClass : FareEngine.FareClass.values()) {
+                json.beginObject()
+                        .field("class", fareClass.name())
+                        .field("cabin", fareClass.getCabin().name())
+                        .field("price", quote.getPrice(fareClass) / 100.0)
+                        .field("open", quote.isOpen(fareClass))
+                        .endObject();
+            }
+            json.endArray().endObject();
+        }
+        json.endArray();
+    }
+
+    private void metrics(HttpExchange exchange) {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            Metrics.writePrometheus(text);
+            byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException ignored) {
+            // client disconnected
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (!journal.needsCompaction() || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                readLocked(() -> {
+                    if (journal.needsCompaction()) {
+                        Main.saveData(airport, airplane, route, flight, clients, bookingEngine, journal);
+                    }
+                    return true;
+                });
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    private void writeAirplane(JsonWriter json, Airplane.AirplaneDetails airplaneDetails) throws IOException {
+        json.beginObject()
+                .field("name", airplaneDetails.getName())
+                .field("seats", airplaneDetails.getSeatCount())
+                .field("range", airplaneDetails.getRange())
+                .field("airport", airplaneDetails.getAirportName())
+                .endObject();
+    }
+
+    private void writeRoute(JsonWriter json, RouteView routeView) throws IOException {
+        json.beginObject()
+                .field("name", routeView.name)
+                .field("departure", routeView.departure)
+                .field("arrival", routeView.arrival)
+                .field("distance", routeView.distance)
+                .field("airplane", routeView.airplane)
+                .endObject();
+    }
+
+    private void writeFlight(JsonWriter json, FlightView flightView) throws IOException {
+        Flight.FlightDetails flightDetails = flightView.details;
+        json.beginObject()
+                .field("id", flightDetails.getId())
+                .field("name", flightDetails.getName())
+                .field("route", flightDetails.getRoute())
+                .field("departure", flightDetails.getDeparture().format(Flight.DATE_TIME_FORMAT))
+                .field("arrival", flightDetails.getArrival().format(Flight.DATE_TIME_FORMAT))
+                .field("availableSeats", flightView.availableSeats)
+                .endObject();
+    }
+
+    private void writeClient(JsonWriter json, Client client, List<Ticket> tickets) throws IOException {
+        json.beginObject()
+                .field("id", client.getId())
+                .field("name", client.getName())
+                .field("phone", client.getPhone())
+                .field("company", client.isCompany())
+                .field("airplanes", client.getAirplaneCount());
+        if (tickets != null) {
+            json.name("tickets").beginArray();
+            for (Ticket ticket : tickets) {
+                writeTicket(json, ticket);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    private void writeTicket(JsonWriter json, Ticket ticket) throws IOException {
+        json.beginObject()
+                .field("number", ticket.getNumber())
+                .field("flight", ticket.getFlightId())
+                .field("client", ticket.getClient().getId())
+                .field("seat", ticket.getSeat())
+                .field("price", ticket.getPrice() / 100.0)
+                .field("bookedAt", ticket.getBookedAt())
+                .endObject();
+    }
+
+    private void writeJourney(JsonWriter json, JourneyView journeyView) throws IOException {
+        if (journeyView == null) {
+            json.nullValue();
+            return;
+        }
+        ConnectionSearch.Journey journey = journeyView.journey;
+        json.beginObject()
+                .field("departure", journey.getDeparture().format(Flight.DATE_TIME_FORMAT))
+                .field("arrival", journey.getArrival().format(Flight.DATE_TIME_FORMAT))
+                .field("transfers", journey.getTransfers())
+                .name("flights").beginArray();
+        for (FlightView flightView : journeyView.flights) {
+            writeFlight(json, flightView);
+        }
+        json.endArray().endObject();
+    }
+
+    private List<FlightView> copyFlights(List<Flight.FlightDetails> flights) {
+        List<FlightView> copy = new ArrayList<>(flights.size());
+        for (Flight.FlightDetails flightDetails : flights) {
+            copy.add(new FlightView(flightDetails));
+        }
+        return copy;
+    }
+
+    private JourneyView copyJourney(ConnectionSearch.Journey journey) {
+        return journey != null ? new JourneyView(journey, copyFlights(journey.getFlights())) : null;
+    }
+
+    private static List<Ticket> copyTickets(Client client) {
+        TicketStore.Postings postings = client.getPostings();
+        if (postings == null) {
+            return List.of();
+        }
+        List<Ticket> tickets = new ArrayList<>();
+        for (Object ticket : postings.toArray()) {
+            tickets.add((Ticket) ticket);
+        }
+        return tickets;
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date, Flight.DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date " + date + " (expected dd.MM.yyyy).");
+        }
+    }
+
+    private <T> T readLocked(Operation<T> operation) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return operation.apply();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T writeLocked(Operation<T> operation) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            return operation.apply();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void mutate(Request request, int successStatus, Operation<Result> operation) throws IOException {
+        Result result = writeLocked(operation);
+        if (result == Result.OK && !awaitDurable(request)) {
+            return;
+        }
+        request.respondResult(result, successStatus);
+    }
+
+    private boolean awaitDurable(Request request) {
+        if (!journal.awaitDurable(journal.getLastSequence())) {
+            request.error(503, "Change could not be made durable.");
+            return false;
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) {
+        StringBuilder messages = new StringBuilder();
+        Log.capture(messages);
+        Request request = new Request(exchange, messages);
+        try {
+            request.parse();
+            endpoint.handle(request);
+        } catch (IllegalArgumentException e) {
+            request.error(400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            Log.release();
+            Log.error("Error: {} failed: {}", request.method + " " + exchange.getRequestURI().getPath(), e);
+            request.error(500, "Internal server error.");
+        } finally {
+            Log.release();
+            request.finish();
+        }
+    }
+
+    private interface Endpoint {
+        void handle(Request request) throws IOException;
+    }
+
+    private interface Operation<T> {
+        T apply();
+    }
+
+    private class RouteView {
+        private String name;
+        private String departure;
+        private String arrival;
+        private int distance;
+        private String airplane;
+
+        RouteView(String name) {
+            this.name = name;
+            this.departure = route.getDepartureAirport(name);
+            this.arrival = route.getArrivalAirport(name);
+            this.distance = route.getDistance(name);
+            this.airplane = route.getAirplane(name);
+        }
+    }
+
+    private class FlightView {
+        private Flight.FlightDetails details;
+        private int availableSeats;
+
+        FlightView(Flight.FlightDetails details) {
+            this.details = details;
+            this.availableSeats = bookingEngine.getAvailableSeats(details.getId());
+        }
+    }
+
+    private static class JourneyView {
+        private ConnectionSearch.Journey journey;
+        private List<FlightView> flights;
+
+        JourneyView(ConnectionSearch.Journey journey, List<FlightView> flights) {
+            this.journey = journey;
+            this.flights = flights;
+        }
+    }
+
+    private static class Request {
+        private HttpExchange exchange;
+        private StringBuilder messages;
+        private String method;
+        private Map<String, String> params;
+        private JsonWriter json;
+
+        Request(HttpExchange exchange, StringBuilder messages) {
+            this.exchange = exchange;
+            this.messages = messages;
+            this.method = exchange.getRequestMethod();
+            this.params = new HashMap<>();
+        }
+
+        void parse() throws IOException {
+            decode(exchange.getRequestURI().getRawQuery());
+            if (method.equals("POST") || method.equals("DELETE")) {
+                try (InputStream body = exchange.getRequestBody()) {
+                    byte[] bytes = body.readNBytes(MAX_BODY_SIZE + 1);
+                    if (bytes.length > MAX_BODY_SIZE) {
+                        throw new IllegalArgumentException("Request body is too large.");
+                    }
+                    decode(new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        String optional(String name) {
+            return params.get(name);
+        }
+
+        String param(String name) {
+            String value = params.get(name);
+            if (value == null || value.isEmpty()) {
+                throw new IllegalArgumentException("Missing parameter " + name + ".");
+            }
+            return value;
+        }
+
+        int intParam(String name) {
+            String value = param(name);
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Parameter " + name + " must be a number.");
+            }
+        }
+
+        LocalDateTime dateTimeParam(String name) {
+            String value = param(name);
+            try {
+                return LocalDateTime.parse(value, Flight.DATE_TIME_FORMAT);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Parameter " + name + " must be HH:mm dd.MM.yyyy.");
+            }
+        }
+
+        JsonWriter respond(int status) throws IOException {
+            if (json != null) {
+                throw new IllegalStateException("Response already started.");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, 0);
+            json = new JsonWriter(new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192));
+            return json;
+        }
+
+        void respondResult(Result result, int successStatus) throws IOException {
+            String message = messages.toString().trim();
+            if (result == Result.OK) {
+                respond(successStatus).beginObject().field("message", message).endObject();
+            } else {
+                error(result == Result.NOT_FOUND ? 404 : 409, message.startsWith("Error: ") ? message.substring("Error: ".length()) : message);
+            }
+        }
+
+        void methodNotAllowed() {
+            error(405, "Method " + method + " is not allowed.");
+        }
+
+        void error(int status, String message) {
+            if (json != null) {
+                return;
+            }
+            try {
+                respond(status).beginObject().field("error", message).endObject();
+            } catch (IOException ignored) {
+                // client disconnected
+            }
+        }
+
+        void finish() {
+            try {
+                if (json != null) {
+                    json.close();
+                }
+            } catch (IOException ignored) {
+                // client disconnected
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private void decode(String query) {
+            if (query == null || query.isEmpty()) {
+                return;
+            }
+            for (String pair : query.split("&")) {
+                int separator = pair.indexOf('=');
+                String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+                String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                params.put(name, value);
+            }
+        }
+    }
+}
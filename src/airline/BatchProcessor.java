@@ -0,0 +1,165 @@
+package airline;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+class BatchProcessor {
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private Airport airport;
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+    private ClientRegistry clients;
+    private BookingEngine bookingEngine;
+    private Journal journal;
+    private int batchSize;
+
+    public BatchProcessor(Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine, Journal journal, int batchSize) {
+        this.airport = airport;
+        this.airplane = airplane;
+        this.route = route;
+        this.flight = flight;
+        this.clients = clients;
+        this.bookingEngine = bookingEngine;
+        this.journal = journal;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public long run(BufferedReader reader) throws IOException {
+        PrintStream console = System.out;
+        PrintStream output = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE), false, StandardCharsets.UTF_8);
+        System.setOut(output);
+        Log.Level level = Log.raiseLevel(Log.Level.WARN);
+        long total = 0;
+        long totalErrors = 0;
+        long started = System.nanoTime();
+        try {
+            int batch = 0;
+            String line;
+            int lineNumber = 0;
+            int commands = 0;
+            int errors = 0;
+            long batchStarted = System.nanoTime();
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                if (!apply(line.split("\t", -1), lineNumber)) {
+                    errors++;
+                }
+                if (++commands == batchSize) {
+                    reportBatch(++batch, commands, errors, batchStarted);
+                    total += commands;
+                    totalErrors += errors;
+                    commands = 0;
+                    errors = 0;
+                    batchStarted = System.nanoTime();
+                }
+            }
+            if (commands > 0) {
+                reportBatch(++batch, commands, errors, batchStarted);
+                total += commands;
+                totalErrors += errors;
+            }
+        } finally {
+            Log.flush();
+            Log.setLevel(level);
+            output.flush();
+            System.setOut(console);
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        System.out.println("Batch finished: " + total + " commands, " + totalErrors + " rejected, " + millis + " ms, " + total * 1000 / millis + " commands/s.");
+        return total;
+    }
+
+    private void reportBatch(int batch, int commands, int errors, long batchStarted) {
+        journal.sync();
+        if (journal.needsCompaction()) {
+            Main.saveData(airport, airplane, route, flight, clients, bookingEngine, journal);
+        }
+        Log.flush();
+        long micros = Math.max(1, (System.nanoTime() - batchStarted) / 1000);
+        System.out.println("Batch " + batch + ": " + commands + " commands, " + errors + " rejected, " + micros / 1000 + " ms, " + commands * 1_000_000L / micros + " commands/s.");
+        System.out.flush();
+    }
+
+    private boolean apply(String[] command, int lineNumber) {
+        try {
+            switch (command[0]) {
+                case Journal.CREATE_AIRPORT:
+                    expect(command, 2);
+                    return airport.createAirport(command[1]) == Result.OK;
+                case Journal.DELETE_AIRPORT:
+                    expect(command, 2);
+                    return airport.deleteAirport(command[1]) == Result.OK;
+                case Journal.CREATE_AIRPLANE:
+                    expect(command, 5);
+                    return airplane.createAirplane(command[1], Integer.parseInt(command[2]), Integer.parseInt(command[3]), command[4]) == Result.OK;
+                case Journal.DELETE_AIRPLANE:
+                    expect(command, 2);
+                    return airplane.deleteAirplane(command[1]) == Result.OK;
+                case Journal.CREATE_ROUTE:
+                    expect(command, 5);
+                    return route.createRoute(command[1], command[2], Integer.parseInt(command[3]), command[4]) == Result.OK;
+                case Journal.DELETE_ROUTE:
+                    expect(command, 2);
+                    return route.deleteRoute(command[1]) == Result.OK;
+                case Journal.ASSIGN_AIRPLANE:
+                    expect(command, 3);
+                    return route.assignAirplane(command[1], command[2]);
+                case Journal.RELEASE_AIRPLANE:
+                    expect(command, 2);
+                    return route.releaseAirplane(command[1]);
+                case Journal.CREATE_FLIGHT:
+                    expect(command, 5);
+                    String[] departure = command[3].split(" ", 2);
+                    String[] arrival = command[4].split(" ", 2);
+                    if (departure.length < 2 || arrival.length < 2) {
+                        Log.error("Error: line {}: expected \"HH:mm dd.MM.yyyy\" times.", lineNumber);
+                        return false;
+                    }
+                    return flight.createFlight(command[1], command[2], departure[0], departure[1], arrival[0], arrival[1]) != null;
+                case Journal.DELETE_FLIGHT:
+                    expect(command, 2);
+                    return flight.deleteFlight(Integer.parseInt(command[1])) == Result.OK;
+                case Journal.CREATE_CLIENT:
+                    expect(command, 5);
+                    return clients.createClient(command[1], command[2], Boolean.parseBoolean(command[3]), Integer.parseInt(command[4])) != null;
+                case Journal.DELETE_CLIENT:
+                    expect(command, 2);
+                    return clients.deleteClient(Integer.parseInt(command[1])) == Result.OK;
+                case Journal.BOOK_TICKET:
+                    if (command.length != 4) {
+                        expect(command, 3);
+                    }
+                    Client client = clients.findByName(command[2]);
+                    if (client == null) {
+                        Log.error("Error: line {}: client {} not found.", lineNumber, command[2]);
+                        return false;
+                    }
+                    return bookingEngine.book(Integer.parseInt(command[1]), client, command.length == 4 ? command[3] : null) != null;
+                default:
+                    Log.error("Error: line {}: unknown command {}.", lineNumber, command[0]);
+                    return false;
+            }
+        } catch (IllegalArgumentException e) {
+            Log.error("Error: line {}: {}", lineNumber, e.getMessage());
+            return false;
+        }
+    }
+
+    private static void expect(String[] command, int fields) {
+        if (command.length != fields) {
+            throw new IllegalArgumentException(command[0] + " expects " + (fields - 1) + " tab-separated fields, got " + (command.length - 1) + ".");
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package airline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class BinarySnapshot {
+    private static final int MAGIC = 0x41524C4E;
+    private static final int VERSION = 1;
+    private static final int NO_STRING = -1;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public static void write(Path path, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine, long sequence) throws IOException {
+        StringTable strings = new StringTable();
+        for (String airportName : airport.getAirports()) {
+            strings.add(airportName);
+        }
+        for (Airplane.AirplaneDetails airplaneDetails : airplane.getAirplanes()) {
+            strings.add(airplaneDetails.getName());
+        }
+        for (String routeName : route.getRoutes()) {
+            strings.add(routeName);
+            strings.add(route.getAirplane(routeName));
+        }
+        for (Flight.FlightDetails flightDetails : flight.getFlights()) {
+            strings.add(flightDetails.getName());
+        }
+        for (Client client : clients.getClients()) {
+            strings.add(client.getName());
+            strings.add(client.getPhone());
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output output = new Output(channel);
+            output.putInt(MAGIC);
+            output.putInt(VERSION);
+            output.putLong(sequence);
+
+            output.putInt(strings.values.size());
+            for (byte[] value : strings.values) {
+                output.putInt(value.length);
+                output.put(value);
+            }
+
+            Collection<String> airports = airport.getAirports();
+            output.putInt(airports.size());
+            for (String airportName : airports) {
+                output.putInt(strings.id(airportName));
+            }
+
+            Collection<Airplane.AirplaneDetails> airplanes = airplane.getAirplanes();
+            output.putInt(airplanes.size());
+            for (Airplane.AirplaneDetails airplaneDetails : airplanes) {
+                output.putInt(strings.id(airplaneDetails.getName()));
+                output.putInt(strings.id(airplaneDetails.getAirportName()));
+                output.putInt(airplaneDetails.getSeatCount());
+                output.putInt(airplaneDetails.getRange());
+            }
+
+            List<String> routes = route.getRoutes();
+            output.putInt(routes.size());
+            for (String routeName : routes) {
+                output.putInt(strings.id(route.getDepartureAirport(routeName)));
+                output.putInt(strings.id(route.getArrivalAirport(routeName)));
+                output.putInt(route.getDistance(routeName));
+                output.putInt(strings.id(route.getAirplane(routeName)));
+            }
+
+            Collection<Flight.FlightDetails> flights = flight.getFlights();
+            output.putInt(flights.size());
+            for (Flight.FlightDetails flightDetails : flights) {
+                output.putInt(flightDetails.getId());
+                output.putInt(strings.id(flightDetails.getName()));
+                output.putInt(strings.id(flightDetails.getRoute()));
+                output.putLong(flightDetails.getDeparture().toEpochSecond(ZoneOffset.UTC));
+                output.putLong(flightDetails.getArrival().toEpochSecond(ZoneOffset.UTC));
+            }
+
+            output.putInt(clients.size());
+            for (Client client : clients.getClients()) {
+                output.putInt(client.getId());
+                output.putInt(strings.id(client.getName()));
+                output.putInt(strings.id(client.getPhone()));
+                output.putInt(client.isCompany() ? 1 : 0);
+                output.putInt(client.getAirplaneCount());
+            }
+
+            long ticketCountPosition = output.position();
+            output.putInt(0);
+            int ticketCount = 0;
+            for (Ticket ticket : bookingEngine.getTickets()) {
+                output.putInt(ticket.getFlightId());
+                output.putInt(ticket.getClient().getId());
+                output.putInt(SeatMap.encode(ticket.getSeat()));
+                output.putLong(ticket.getPrice());
+                output.putLong(ticket.getBookedAt());
+                output.putLong(ticket.getNumber());
+                ticketCount++;
+            }
+
+            output.flush();
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, ticketCount), ticketCountPosition);
+            channel.force(true);
+        }
+    }
+
+    public static long read(Path path, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary snapshot is larger than 2 GB.");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary snapshot: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + version + ".");
+        }
+        long sequence = buffer.getLong();
+
+        String[] strings = new String[buffer.getInt()];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int airportCount = buffer.getInt();
+        airport.prepareBulkLoad(airportCount);
+        for (int i = 0; i < airportCount; i++) {
+            airport.loadAirport(strings[buffer.getInt()]);
+        }
+
+        int airplaneCount = buffer.getInt();
+        airplane.prepareBulkLoad(airplaneCount);
+        for (int i = 0; i < airplaneCount; i++) {
+            String name = strings[buffer.getInt()];
+            String airportName = strings[buffer.getInt()];
+            int seatCount = buffer.getInt();
+            int range = buffer.getInt();
+            airplane.loadAirplane(name, seatCount, range, airportName);
+        }
+
+        int routeCount = buffer.getInt();
+        route.prepareBulkLoad(routeCount);
+        for (int i = 0; i < routeCount; i++) {
+            String departureAirport = strings[buffer.getInt()];
+            String arrivalAirport = strings[buffer.getInt()];
+            int distance = buffer.getInt();
+            int airplaneId = buffer.getInt();
+            route.loadRoute(departureAirport, arrivalAirport, distance, airplaneId == NO_STRING ? null : strings[airplaneId]);
+        }
+
+        int flightCount = buffer.getInt();
+        flight.prepareBulkLoad(flightCount);
+        bookingEngine.prepareBulkLoad(flightCount);
+        for (int i = 0; i < flightCount; i++) {
+            int flightId = buffer.getInt();
+            String name = strings[buffer.getInt()];
+            String routeName = strings[buffer.getInt()];
+            LocalDateTime departure = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            LocalDateTime arrival = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            flight.loadFlight(flightId, name, routeName, departure, arrival);
+        }
+
+        int clientCount = buffer.getInt();
+        clients.prepareBulkLoad(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            int clientId = buffer.getInt();
+            String name = strings[buffer.getInt()];
+            String phone = strings[buffer.getInt()];
+            boolean isCompany = buffer.getInt() != 0;
+            int companyAirplaneCount = buffer.getInt();
+            clients.loadClient(clientId, name, phone, isCompany, companyAirplaneCount);
+        }
+
+        int ticketCount = buffer.getInt();
+        for (int i = 0; i < ticketCount; i++) {
+            int flightId = buffer.getInt();
+            Client client = clients.getClient(buffer.getInt());
+            String seat = SeatMap.decode(buffer.getInt());
+            long price = buffer.getLong();
+            long bookedAt = buffer.getLong();
+            long number = buffer.getLong();
+            if (client != null) {
+                bookingEngine.restoreTicket(number, flightId, client, seat, price, bookedAt);
+            }
+        }
+        return sequence;
+    }
+
+    private static class StringTable {
+        private Map<String, Integer> ids = new HashMap<>();
+        private List<byte[]> values = new ArrayList<>();
+
+        void add(String value) {
+            if (value != null && !ids.containsKey(value)) {
+                ids.put(value, values.size());
+                values.add(value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int id(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            add(value);
+            return ids.get(value);
+        }
+    }
+
+    private static class Output {
+        private FileChannel channel;
+        private ByteBuffer buffer;
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void put(byte[] value) throws IOException {
+            int offset = 0;
+            while (offset < value.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), value.length - offset);
+                buffer.put(value, offset, length);
+                offset += length;
+            }
+        }
+
+        long position() throws IOException {
+            return channel.position() + buffer.position();
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
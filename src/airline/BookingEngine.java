@@ -0,0 +1,376 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BookingEngine {
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+    private Map<Integer, SeatInventory> inventories;
+    private Map<Integer, SeatMap> seatMaps;
+    private TicketStore tickets;
+    private Journal journal;
+    private FareEngine fareEngine;
+    private Statistics statistics;
+
+    public BookingEngine(Airplane airplane, Route route, Flight flight) {
+        this.airplane = airplane;
+        this.route = route;
+        this.flight = flight;
+        inventories = new ConcurrentHashMap<>();
+        seatMaps = new ConcurrentHashMap<>();
+        tickets = new TicketStore();
+        flight.setBookingEngine(this);
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public void setFareEngine(FareEngine fareEngine) {
+        this.fareEngine = fareEngine;
+    }
+
+    public void setStatistics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public Ticket book(int flightId, Client client) {
+        return book(flightId, client, null);
+    }
+
+    public Ticket book(int flightId, Client client, String seat) {
+        long started = Metrics.BOOK_TICKET.start();
+        SeatInventory inventory = getInventory(flightId);
+        if (inventory == null) {
+            Log.error("Error: Flight not found.");
+            return null;
+        }
+
+        if (!inventory.tryReserve()) {
+            Log.error("Error: No seats left on flight {}.", flightId);
+            return null;
+        }
+
+        SeatMap seatMap = getSeatMap(flightId);
+        String assignedSeat = seat != null ? seatMap.claim(seat) : seatMap.claimAny(null);
+        if (assignedSeat == null) {
+            inventory.release();
+            if (seat != null) {
+                Log.error("Error: Seat {} is not available on flight {}.", seat, flightId);
+            } else {
+                Log.error("Error: No seats left on flight {}.", flightId);
+            }
+            return null;
+        }
+
+        long price = fareEngine != null ? fareEngine.price(flightId, seatMap.getCabin(assignedSeat)) : 0;
+        Ticket ticket = tickets.add(flightId, client, assignedSeat, price, System.currentTimeMillis());
+        if (statistics != null) {
+            statistics.ticketBooked(flightId, price);
+        }
+        if (fareEngine != null) {
+            fareEngine.invalidate(flightId);
+        }
+        if (journal != null) {
+            journal.record(Journal.BOOK_TICKET, flightId, client.getId(), assignedSeat, price, ticket.getBookedAt(), ticket.getNumber());
+        }
+        Metrics.BOOK_TICKET.stop(started);
+        Log.info("Ticket booked: flight {} - {}, seat {}", flightId, client.getName(), assignedSeat);
+        return ticket;
+    }
+
+    public List<Ticket> bookGroup(int flightId, List<Client> group, SeatMap.Cabin cabin) {
+        SeatInventory inventory = getInventory(flightId);
+        if (inventory == null) {
+            Log.error("Error: Flight not found.");
+            return null;
+        }
+
+        int reserved = 0;
+        while (reserved < group.size() && inventory.tryReserve()) {
+            reserved++;
+        }
+        List<String> seats = reserved == group.size() ? getSeatMap(flightId).claimBlock(cabin, group.size()) : null;
+        if (seats == null) {
+            for (int i = 0; i < reserved; i++) {
+                inventory.release();
+            }
+            Log.error("Error: No block of {} adjacent seats left on flight {}.", group.size(), flightId);
+            return null;
+        }
+
+        long price = fareEngine != null ? fareEngine.price(flightId, getSeatMap(flightId).getCabin(seats.get(0))) : 0;
+        if (fareEngine != null) {
+            fareEngine.invalidate(flightId);
+        }
+        long bookedAt = System.currentTimeMillis();
+        List<Ticket> booked = new ArrayList<>(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            long started = Metrics.BOOK_TICKET.start();
+            Client client = group.get(i);
+            Ticket ticket = tickets.add(flightId, client, seats.get(i), price, bookedAt);
+            booked.add(ticket);
+            if (statistics != null) {
+                statistics.ticketBooked(flightId, price);
+            }
+            if (journal != null) {
+                journal.record(Journal.BOOK_TICKET, flightId, client.getId(), seats.get(i), price, bookedAt, ticket.getNumber());
+            }
+            Metrics.BOOK_TICKET.stop(started);
+            Log.info("Ticket booked: flight {} - {}, seat {}", flightId, client.getName(), seats.get(i));
+        }
+        return booked;
+    }
+
+    public Ticket restoreTicket(int flightId, Client client) {
+        return restoreTicket(flightId, client, null, 0, 0);
+    }
+
+    public Ticket restoreTicket(int flightId, Client client, String seat, long price, long bookedAt) {
+        return restoreTicket(0, flightId, client, seat, price, bookedAt);
+    }
+
+    public Ticket restoreTicket(long number, int flightId, Client client, String seat, long price, long bookedAt) {
+        SeatInventory inventory = getInventory(flightId);
+        if (inventory == null || tickets.contains(number)) {
+            return null;
+        }
+
+        inventory.forceReserve();
+        SeatMap seatMap = getSeatMap(flightId);
+        String assignedSeat = seat != null ? seatMap.claim(seat) : null;
+        if (fareEngine != null) {
+            fareEngine.invalidate(flightId);
+        }
+        Ticket ticket = tickets.restore(number, flightId, client, assignedSeat != null ? assignedSeat : seatMap.claimAny(null), price, bookedAt);
+        if (statistics != null) {
+            statistics.ticketBooked(flightId, price);
+        }
+        return ticket;
+    }
+
+    public int cancelTickets(Client client) {
+        List<Ticket> cancelled = tickets.cancel(client);
+        for (Ticket ticket : cancelled) {
+            SeatInventory inventory = inventories.get(ticket.getFlightId());
+            if (inventory != null) {
+                inventory.release();
+            }
+            SeatMap seatMap = seatMaps.get(ticket.getFlightId());
+            if (seatMap != null && ticket.getSeat() != null) {
+                seatMap.release(ticket.getSeat());
+            }
+            if (statistics != null) {
+                statistics.ticketCancelled(ticket.getFlightId(), ticket.getPrice());
+            }
+            if (fareEngine != null) {
+                fareEngine.invalidate(ticket.getFlightId());
+            }
+        }
+        return cancelled.size();
+    }
+
+    public int cancelTickets(int flightId) {
+        List<Ticket> cancelled = tickets.cancel(flightId);
+        inventories.remove(flightId);
+        seatMaps.remove(flightId);
+        if (statistics != null) {
+            for (Ticket ticket : cancelled) {
+                statistics.ticketCancelled(flightId, ticket.getPrice());
+            }
+            statistics.flightDeleted(flightId);
+        }
+        if (fareEngine != null) {
+            fareEngine.invalidate(flightId);
+        }
+        return cancelled.size();
+    }
+
+    public SeatMap getSeatMap(int flightId) {
+        SeatMap seatMap = seatMaps.get(flightId);
+        if (seatMap != null) {
+            return seatMap;
+        }
+
+        Flight.FlightDetails flightDetails = flight.getFlightDetails(flightId);
+        if (flightDetails == null) {
+            return null;
+        }
+        return seatMaps.computeIfAbsent(flightId, id -> new SeatMap(getSeatCount(flightDetails)));
+    }
+
+    public int getAvailableSeats(int flightId) {
+        SeatInventory inventory = getInventory(flightId);
+        return inventory != null ? inventory.getAvailable() : 0;
+    }
+
+    public int getSoldSeats(int flightId) {
+        SeatInventory inventory = getInventory(flightId);
+        return inventory != null ? inventory.getSold() : 0;
+    }
+
+    public int getAvailableSeats(int flightId, SeatMap.Cabin cabin) {
+        SeatMap seatMap = getSeatMap(flightId);
+        return seatMap != null ? seatMap.getAvailable(cabin) : 0;
+    }
+
+    public int getCapacity(int flightId) {
+        SeatInventory inventory = getInventory(flightId);
+        return inventory != null ? inventory.getCapacity() : 0;
+    }
+
+    public int peekSoldSeats(int flightId) {
+        SeatInventory inventory = inventories.get(flightId);
+        return inventory != null ? inventory.getSold() : 0;
+    }
+
+    public int peekCapacity(int flightId) {
+        SeatInventory inventory = inventories.get(flightId);
+        if (inventory != null) {
+            return inventory.getCapacity();
+        }
+        Flight.FlightDetails flightDetails = flight.getFlightDetails(flightId);
+        return flightDetails != null ? getSeatCount(flightDetails) : 0;
+    }
+
+    public void refreshCapacity(String routeName) {
+        for (Flight.FlightDetails flightDetails : flight.getFlightsForRoute(routeName)) {
+            int flightId = flightDetails.getId();
+            int seatCount = getSeatCount(flightDetails);
+            SeatInventory inventory = inventories.get(flightId);
+            if (inventory != null) {
+                inventory.setCapacity(seatCount);
+            }
+            if (fareEngine != null) {
+                fareEngine.invalidate(flightId);
+            }
+            SeatMap current = seatMaps.get(flightId);
+            if (current == null || seatCount == 0 || current.getSeatCount() == seatCount) {
+                continue;
+            }
+
+            SeatMap seatMap = new SeatMap(seatCount);
+            List<Ticket> flightTickets = tickets.getTickets(flightId);
+            List<Ticket> unseated = new ArrayList<>();
+            for (Ticket ticket : flightTickets) {
+                if (ticket.getSeat() == null || seatMap.claim(ticket.getSeat()) == null) {
+                    unseated.add(ticket);
+                }
+            }
+            for (Ticket ticket : unseated) {
+                tickets.setSeat(ticket.getNumber(), seatMap.claimAny(null));
+            }
+            seatMaps.put(flightId, seatMap);
+        }
+    }
+
+    public long getRevenue(int flightId) {
+        return statistics != null ? statistics.getRevenue(flightId) : tickets.getRevenue(flightId);
+    }
+
+    public Collection<Ticket> getTickets() {
+        return tickets.getTickets();
+    }
+
+    public List<Ticket> getTickets(int flightId) {
+        return Collections.unmodifiableList(tickets.getTickets(flightId));
+    }
+
+    public Ticket getTicket(long number) {
+        return tickets.get(number);
+    }
+
+    public void prepareBulkLoad(int flightCount) {
+        if (inventories.isEmpty()) {
+            inventories = new ConcurrentHashMap<>(flightCount);
+            seatMaps = new ConcurrentHashMap<>(flightCount);
+        }
+    }
+
+    public void clear() {
+        inventories.clear();
+        seatMaps.clear();
+        tickets.clear();
+        if (statistics != null) {
+            statistics.clear();
+        }
+        if (fareEngine != null) {
+            fareEngine.invalidateAll();
+        }
+    }
+
+    private SeatInventory getInventory(int flightId) {
+        SeatInventory inventory = inventories.get(flightId);
+        if (inventory != null) {
+            return inventory;
+        }
+
+        Flight.FlightDetails flightDetails = flight.getFlightDetails(flightId);
+        if (flightDetails == null) {
+            return null;
+        }
+        return inventories.computeIfAbsent(flightId, id -> new SeatInventory(getSeatCount(flightDetails)));
+    }
+
+    private int getSeatCount(Flight.FlightDetails flightDetails) {
+        String airplaneName = route.getAirplane(flightDetails.getRoute());
+        if (airplaneName == null) {
+            return 0;
+        }
+        Airplane.AirplaneDetails airplaneDetails = airplane.getAirplaneDetails(airplaneName);
+        return airplaneDetails != null ? airplaneDetails.getSeatCount() : 0;
+    }
+
+    static class SeatInventory {
+        private volatile int capacity;
+        private final AtomicInteger sold;
+
+        SeatInventory(int capacity) {
+            this.capacity = capacity;
+            this.sold = new AtomicInteger();
+        }
+
+        boolean tryReserve() {
+            while (true) {
+                int current = sold.get();
+                if (current >= capacity) {
+                    return false;
+                }
+                if (sold.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void forceReserve() {
+            sold.incrementAndGet();
+        }
+
+        void release() {
+            sold.decrementAndGet();
+        }
+
+        void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        int getCapacity() {
+            return capacity;
+        }
+
+        int getSold() {
+            return sold.get();
+        }
+
+        int getAvailable() {
+            return Math.max(0, capacity - sold.get());
+        }
+    }
+}
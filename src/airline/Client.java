@@ -0,0 +1,65 @@
+package airline;
+
+import java.util.Collections;
+import java.util.List;
+
+class Client {
+    private int id;
+    private String name;
+    private String phone;
+    private boolean isCompany;
+    private int airplaneCount;
+    private volatile TicketStore.Postings postings;
+
+    public Client(int id, String name, String phone, boolean isCompany, int airplaneCount) {
+        this.id = id;
+        this.name = name;
+        this.phone = phone;
+        this.isCompany = isCompany;
+        this.airplaneCount = airplaneCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+
+    public boolean isCompany() {
+        return isCompany;
+    }
+
+    public int getAirplaneCount() {
+        return airplaneCount;
+    }
+
+    @Override
+    public String toString() {
+        String clientType = isCompany ? "Company" : "Individual";
+        String details = "Name: " + name + ", Phone: " + phone;
+        if (isCompany) {
+            details += ", Airplane Count: " + airplaneCount;
+        }
+        return clientType + " " + details;
+    }
+
+    public List<Ticket> getTickets() {
+        TicketStore.Postings tickets = postings;
+        return tickets != null ? tickets : Collections.emptyList();
+    }
+
+    TicketStore.Postings getPostings() {
+        return postings;
+    }
+
+    void attachPostings(TicketStore.Postings postings) {
+        this.postings = postings;
+    }
+}
@@ -0,0 +1,137 @@
+package airline;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class ClientRegistry {
+    private Map<Integer, Client> clients;
+    private Map<String, Client> clientsByName;
+    private Map<String, Client> clientsByPhone;
+    private BookingEngine bookingEngine;
+    private Journal journal;
+    private int nextClientId;
+
+    public ClientRegistry(BookingEngine bookingEngine) {
+        this.bookingEngine = bookingEngine;
+        clients = new LinkedHashMap<>();
+        clientsByName = new HashMap<>();
+        clientsByPhone = new HashMap<>();
+        nextClientId = 1;
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public Client createClient(String name, String phone, boolean isCompany, int airplaneCount) {
+        long started = Metrics.CREATE_CLIENT.start();
+        if (name.isBlank()) {
+            Log.error("Error: Client name cannot be empty.");
+            return null;
+        }
+        if (clientsByName.containsKey(name)) {
+            Log.error("Error: Client with the same name already exists.");
+            return null;
+        }
+        if (clientsByPhone.containsKey(phone)) {
+            Log.error("Error: Client with the same phone already exists: {}.", clientsByPhone.get(phone).getName());
+            return null;
+        }
+
+        Client client = loadClient(nextClientId, name, phone, isCompany, airplaneCount);
+        if (journal != null) {
+            journal.record(Journal.CREATE_CLIENT, name, phone, isCompany, airplaneCount, client.getId());
+        }
+        Metrics.CREATE_CLIENT.stop(started);
+        Log.info("Client created: {}", client);
+        return client;
+    }
+
+    public Client loadClient(String name, String phone, boolean isCompany, int airplaneCount) {
+        return loadClient(nextClientId, name, phone, isCompany, airplaneCount);
+    }
+
+    public Client loadClient(int clientId, String name, String phone, boolean isCompany, int airplaneCount) {
+        Client client = new Client(clientId, name, phone, isCompany, airplaneCount);
+        Client replaced = clients.put(clientId, client);
+        if (replaced != null) {
+            removeClientIndexes(replaced);
+        }
+        clientsByName.putIfAbsent(name, client);
+        clientsByPhone.putIfAbsent(phone, client);
+        nextClientId = Math.max(nextClientId, clientId + 1);
+        return client;
+    }
+
+    public void prepareBulkLoad(int clientCount) {
+        if (clients.isEmpty()) {
+            clients = LinkedHashMap.newLinkedHashMap(clientCount);
+            clientsByName = HashMap.newHashMap(clientCount);
+            clientsByPhone = HashMap.newHashMap(clientCount);
+        }
+    }
+
+    public Result deleteClient(int clientId) {
+        long started = Metrics.DELETE_CLIENT.start();
+        Client clientToDelete = clients.remove(clientId);
+        if (clientToDelete == null) {
+            Log.error("Error: Client not found.");
+            return Result.NOT_FOUND;
+        }
+
+        removeClientIndexes(clientToDelete);
+        int cancelled = bookingEngine.cancelTickets(clientToDelete);
+        if (journal != null) {
+            journal.record(Journal.DELETE_CLIENT, clientId);
+        }
+        Metrics.DELETE_CLIENT.stop(started);
+        if (cancelled > 0) {
+            Log.info("Client deleted: {} ({} tickets cancelled)", clientToDelete, cancelled);
+        } else {
+            Log.info("Client deleted: {}", clientToDelete);
+        }
+        return Result.OK;
+    }
+
+    public void removeClient(int clientId) {
+        Client clientToDelete = clients.remove(clientId);
+        if (clientToDelete != null) {
+            removeClientIndexes(clientToDelete);
+            bookingEngine.cancelTickets(clientToDelete);
+        }
+    }
+
+    private void removeClientIndexes(Client client) {
+        clientsByName.remove(client.getName(), client);
+        clientsByPhone.remove(client.getPhone(), client);
+    }
+
+    public Client getClient(int clientId) {
+        return clients.get(clientId);
+    }
+
+    public Client findByName(String name) {
+        return clientsByName.get(name);
+    }
+
+    public Client findByPhone(String phone) {
+        return clientsByPhone.get(phone);
+    }
+
+    public Collection<Client> getClients() {
+        return clients.values();
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    public void clear() {
+        clients.clear();
+        clientsByName.clear();
+        clientsByPhone.clear();
+        nextClientId = 1;
+    }
+}
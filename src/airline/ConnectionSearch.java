@@ -0,0 +1,373 @@
+package airline;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+class ConnectionSearch {
+    private static final int MAX_LEGS = 8;
+    private static final int NOT_REACHED = Integer.MAX_VALUE;
+    private static final int DEFAULT_MINIMUM_CONNECTION_TIME = Integer.getInteger("airline.connection.minimum", 45);
+    private static final int POOLED_SCANS = Runtime.getRuntime().availableProcessors();
+
+    private Flight flight;
+    private BookingEngine bookingEngine;
+    private Map<String, Integer> minimumConnectionTimes;
+    private volatile int settingsVersion;
+    private volatile Timetable timetable;
+    private BlockingQueue<Scan> scans;
+
+    public ConnectionSearch(Flight flight, BookingEngine bookingEngine) {
+        this.flight = flight;
+        this.bookingEngine = bookingEngine;
+        minimumConnectionTimes = new HashMap<>();
+        scans = new ArrayBlockingQueue<>(POOLED_SCANS);
+    }
+
+    public synchronized void setMinimumConnectionTime(String airportName, int minutes) {
+        if (minutes < 0) {
+            Log.error("Error: Minimum connection time cannot be negative.");
+            return;
+        }
+        minimumConnectionTimes.put(airportName, minutes);
+        settingsVersion++;
+        Log.info("Minimum connection time at {} set to {} min.", airportName, minutes);
+    }
+
+    public synchronized int getMinimumConnectionTime(String airportName) {
+        return minimumConnectionTimes.getOrDefault(airportName, DEFAULT_MINIMUM_CONNECTION_TIME);
+    }
+
+    public Journey earliestArrival(String departureAirport, String arrivalAirport, LocalDateTime after, int seats) {
+        long started = Metrics.CONNECTION_SEARCH.start();
+        Scan scan = acquireScan();
+        Journey journey;
+        try {
+            journey = scanEarliestArrival(scan, departureAirport, arrivalAirport, after, seats);
+        } finally {
+            scans.offer(scan);
+        }
+        Metrics.CONNECTION_SEARCH.stop(started);
+        return journey;
+    }
+
+    private Journey scanEarliestArrival(Scan scan, String departureAirport, String arrivalAirport, LocalDateTime after, int seats) {
+        Timetable current = getTimetable();
+        Integer source = current.airportIds.get(departureAirport);
+        Integer target = current.airportIds.get(arrivalAirport);
+        if (source == null || target == null || source.equals(target)) {
+            return null;
+        }
+
+        scan.reset(current.airportNames.length, 1);
+        int start = toMinutes(after);
+        scan.set(0, source, start, -1);
+        for (int c = current.firstDeparture(start); c < current.flightIds.length; c++) {
+            if (current.departureTimes[c] >= scan.arrival(0, target)) {
+                break;
+            }
+
+            int from = current.departureStops[c];
+            int arrivedAt = scan.arrival(0, from);
+            if (arrivedAt == NOT_REACHED || current.departureTimes[c] < ready(current, from, source, arrivedAt)) {
+                continue;
+            }
+            int to = current.arrivalStops[c];
+            if (current.arrivalTimes[c] < scan.arrival(0, to) && hasSeats(current.flightIds[c], seats)) {
+                scan.set(0, to, current.arrivalTimes[c], c);
+            }
+        }
+
+        if (scan.arrival(0, target) == NOT_REACHED) {
+            return null;
+        }
+        List<Integer> legs = new ArrayList<>();
+        for (int stop = target; stop != source && legs.size() <= current.airportNames.length; stop = current.departureStops[legs.get(legs.size() - 1)]) {
+            legs.add(scan.connection(0, stop));
+        }
+        Collections.reverse(legs);
+        return current.toJourney(legs);
+    }
+
+    public Journey fewestTransfers(String departureAirport, String arrivalAirport, LocalDateTime after, int seats) {
+        long started = Metrics.CONNECTION_SEARCH.start();
+        Scan scan = acquireScan();
+        Journey journey;
+        try {
+            journey = scanFewestTransfers(scan, departureAirport, arrivalAirport, after, seats);
+        } finally {
+            scans.offer(scan);
+        }
+        Metrics.CONNECTION_SEARCH.stop(started);
+        return journey;
+    }
+
+    private Journey scanFewestTransfers(Scan scan, String departureAirport, String arrivalAirport, LocalDateTime after, int seats) {
+        Timetable current = getTimetable();
+        Integer source = current.airportIds.get(departureAirport);
+        Integer target = current.airportIds.get(arrivalAirport);
+        if (source == null || target == null || source.equals(target)) {
+            return null;
+        }
+
+        scan.reset(current.airportNames.length, MAX_LEGS + 1);
+        int start = toMinutes(after);
+        scan.set(0, source, start, -1);
+        int bestLegs = MAX_LEGS + 1;
+        for (int c = current.firstDeparture(start); c < current.flightIds.length; c++) {
+            int maxLegs = Math.min(bestLegs, MAX_LEGS);
+            if (bestLegs <= MAX_LEGS && current.departureTimes[c] >= scan.arrival(bestLegs, target)) {
+                maxLegs = bestLegs - 1;
+            }
+            if (maxLegs == 0) {
+                break;
+            }
+
+            int from = current.departureStops[c];
+            int to = current.arrivalStops[c];
+            boolean checked = false;
+            for (int legs = 0; legs < maxLegs && legs < bestLegs; legs++) {
+                int arrivedAt = scan.arrival(legs, from);
+                if (arrivedAt == NOT_REACHED || current.departureTimes[c] < ready(current, from, source, arrivedAt)
+                        || current.arrivalTimes[c] >= scan.arrival(legs + 1, to)) {
+                    continue;
+                }
+                if (!checked) {
+                    if (!hasSeats(current.flightIds[c], seats)) {
+                        break;
+                    }
+                    checked = true;
+                }
+                scan.set(legs + 1, to, current.arrivalTimes[c], c);
+                if (to == target && legs + 1 < bestLegs) {
+                    bestLegs = legs + 1;
+                }
+            }
+        }
+
+        if (bestLegs > MAX_LEGS) {
+            return null;
+        }
+        List<Integer> legs = new ArrayList<>(bestLegs);
+        int stop = target;
+        for (int layer = bestLegs; layer > 0; layer--) {
+            int c = scan.connection(layer, stop);
+            legs.add(c);
+            stop = current.departureStops[c];
+        }
+        Collections.reverse(legs);
+        return current.toJourney(legs);
+    }
+
+    private Scan acquireScan() {
+        Scan scan = scans.poll();
+        return scan != null ? scan : new Scan();
+    }
+
+    private int ready(Timetable current, int stop, int source, int arrivedAt) {
+        return stop == source ? arrivedAt : arrivedAt + current.minimumConnectionTimes[stop];
+    }
+
+    private boolean hasSeats(int flightId, int seats) {
+        return seats <= 0 || bookingEngine.getAvailableSeats(flightId) >= seats;
+    }
+
+    private Timetable getTimetable() {
+        Timetable current = timetable;
+        long currentVersion = currentVersion();
+        if (current == null || current.version != currentVersion) {
+            synchronized (this) {
+                current = timetable;
+                if (current == null || current.version != currentVersion) {
+                    current = buildTimetable(currentVersion);
+                    timetable = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private long currentVersion() {
+        return ((long) settingsVersion << 32) | (flight.getVersion() & 0xFFFFFFFFL);
+    }
+
+    private Timetable buildTimetable(long version) {
+        NavigableSet<Flight.FlightDetails> flights = flight.getFlightsByDeparture();
+        Timetable built = new Timetable(version);
+        List<String> names = new ArrayList<>();
+        built.airportIds = HashMap.newHashMap(flights.size() / 8 + 16);
+
+        int count = 0;
+        for (Flight.FlightDetails flightDetails : flights) {
+            if (flightDetails.getDepartureAirport() != null) {
+                count++;
+            }
+        }
+        built.departureStops = new int[count];
+        built.arrivalStops = new int[count];
+        built.departureTimes = new int[count];
+        built.arrivalTimes = new int[count];
+        built.flightIds = new int[count];
+        built.flights = new Flight.FlightDetails[count];
+        int c = 0;
+        for (Flight.FlightDetails flightDetails : flights) {
+            if (flightDetails.getDepartureAirport() == null) {
+                continue;
+            }
+            built.flights[c] = flightDetails;
+            built.flightIds[c] = flightDetails.getId();
+            built.departureTimes[c] = toMinutes(flightDetails.getDeparture());
+            built.arrivalTimes[c] = toMinutes(flightDetails.getArrival());
+            built.departureStops[c] = built.intern(flightDetails.getDepartureAirport(), names);
+            built.arrivalStops[c] = built.intern(flightDetails.getArrivalAirport(), names);
+            c++;
+        }
+
+        built.airportNames = names.toArray(new String[0]);
+        built.minimumConnectionTimes = new int[built.airportNames.length];
+        for (int stop = 0; stop < built.airportNames.length; stop++) {
+            built.minimumConnectionTimes[stop] = getMinimumConnectionTime(built.airportNames[stop]);
+        }
+        return built;
+    }
+
+    private static int toMinutes(LocalDateTime dateTime) {
+        return (int) Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static class Journey {
+        private List<String> airports;
+        private List<Flight.FlightDetails> flights;
+
+        Journey(List<String> airports, List<Flight.FlightDetails> flights) {
+            this.airports = airports;
+            this.flights = flights;
+        }
+
+        public List<String> getAirports() {
+            return airports;
+        }
+
+        public List<Flight.FlightDetails> getFlights() {
+            return flights;
+        }
+
+        public LocalDateTime getDeparture() {
+            return flights.get(0).getDeparture();
+        }
+
+        public LocalDateTime getArrival() {
+            return flights.get(flights.size() - 1).getArrival();
+        }
+
+        public int getTransfers() {
+            return flights.size() - 1;
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" -> ", airports) + " | Departure: " + getDeparture().format(Flight.DATE_TIME_FORMAT)
+                    + " | Arrival: " + getArrival().format(Flight.DATE_TIME_FORMAT)
+                    + " | " + getTransfers() + (getTransfers() == 1 ? " transfer" : " transfers");
+        }
+    }
+
+    private static class Timetable {
+        private long version;
+        private String[] airportNames;
+        private Map<String, Integer> airportIds;
+        private int[] minimumConnectionTimes;
+        private int[] departureStops;
+        private int[] arrivalStops;
+        private int[] departureTimes;
+        private int[] arrivalTimes;
+        private int[] flightIds;
+        private Flight.FlightDetails[] flights;
+
+        Timetable(long version) {
+            this.version = version;
+        }
+
+        int firstDeparture(int time) {
+            int low = 0;
+            int high = departureTimes.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (departureTimes[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        Journey toJourney(List<Integer> connections) {
+            List<String> airports = new ArrayList<>(connections.size() + 1);
+            List<Flight.FlightDetails> legs = new ArrayList<>(connections.size());
+            airports.add(airportNames[departureStops[connections.get(0)]]);
+            for (int c : connections) {
+                airports.add(airportNames[arrivalStops[c]]);
+                legs.add(flights[c]);
+            }
+            return new Journey(airports, legs);
+        }
+
+        private int intern(String airportName, List<String> names) {
+            Integer id = airportIds.get(airportName);
+            if (id == null) {
+                id = names.size();
+                airportIds.put(airportName, id);
+                names.add(airportName);
+            }
+            return id;
+        }
+    }
+
+    private static class Scan {
+        private int[] arrivals = new int[0];
+        private int[] connections = new int[0];
+        private int[] stamps = new int[0];
+        private int generation;
+        private int airportCount;
+
+        void reset(int airportCount, int layers) {
+            this.airportCount = airportCount;
+            int size = airportCount * layers;
+            if (arrivals.length < size) {
+                arrivals = new int[size];
+                connections = new int[size];
+                stamps = new int[size];
+                generation = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+        }
+
+        int arrival(int layer, int stop) {
+            int index = layer * airportCount + stop;
+            return stamps[index] == generation ? arrivals[index] : NOT_REACHED;
+        }
+
+        int connection(int layer, int stop) {
+            return connections[layer * airportCount + stop];
+        }
+
+        void set(int layer, int stop, int arrival, int connection) {
+            int index = layer * airportCount + stop;
+            stamps[index] = generation;
+            arrivals[index] = arrival;
+            connections[index] = connection;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package airline;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class DataGenerator {
+    private static final String[] CITIES = {
+            "Warszawa", "Krakow", "Gdansk", "Wroclaw", "Poznan", "Katowice", "Porto", "Lisboa", "Madrid", "Barcelona",
+            "Paris", "Lyon", "London", "Dublin", "Amsterdam", "Brussels", "Frankfurt", "Munich", "Berlin", "Vienna",
+            "Zurich", "Milano", "Roma", "Athina", "Istanbul", "Praha", "Budapest", "Oslo", "Stockholm", "Helsinki",
+            "Kobenhavn", "Riga", "Vilnius", "Tallinn", "Reykjavik", "New York", "Chicago", "Toronto", "Dubai", "Tokyo"
+    };
+    private static final String[] MODELS = {"ATR72", "E190", "A320", "B737", "A330", "B787"};
+    private static final int[] MODEL_SEATS = {70, 100, 180, 189, 277, 296};
+    private static final int[] MODEL_RANGES = {1500, 4500, 6100, 5600, 11750, 13600};
+    private static final int AIRPLANES_PER_AIRPORT = 3;
+
+    public static void generate(int ticketCount, long seed, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) {
+        Random random = new Random(seed);
+        int flightCount = Math.max(1, ticketCount / 150);
+        int routeCount = Math.max(1, flightCount / 10);
+        int airportCount = Math.min(10000, Math.max(4, routeCount / 4));
+        int clientCount = Math.max(1, ticketCount / 4);
+
+        List<String> airports = new ArrayList<>(airportCount);
+        airport.prepareBulkLoad(airportCount);
+        airplane.prepareBulkLoad(airportCount * AIRPLANES_PER_AIRPORT);
+        for (int i = 0; i < airportCount; i++) {
+            String airportName = CITIES[i % CITIES.length] + (i < CITIES.length ? "" : " " + (i / CITIES.length + 1));
+            airports.add(airportName);
+            airport.loadAirport(airportName);
+            for (int j = 0; j < AIRPLANES_PER_AIRPORT; j++) {
+                int model = random.nextInt(MODELS.length);
+                airplane.loadAirplane(MODELS[model] + "-" + i + "-" + j, MODEL_SEATS[model], MODEL_RANGES[model], airportName);
+            }
+        }
+
+        List<String> routes = new ArrayList<>(routeCount);
+        Set<String> routeKeys = new HashSet<>();
+        route.prepareBulkLoad(routeCount);
+        for (int attempt = 0; routes.size() < routeCount && attempt < routeCount * 4; attempt++) {
+            String departureAirport = airports.get(random.nextInt(airportCount));
+            String arrivalAirport = airports.get(random.nextInt(airportCount));
+            if (departureAirport.equals(arrivalAirport) || !routeKeys.add(departureAirport + " - " + arrivalAirport)) {
+                continue;
+            }
+
+            List<Airplane.AirplaneDetails> candidates = new ArrayList<>(airplane.getAirplanesAt(departureAirport));
+            Airplane.AirplaneDetails selected = candidates.get(random.nextInt(candidates.size()));
+            int distance = 200 + random.nextInt(Math.max(1, selected.getRange() - 200));
+            routes.add(route.loadRoute(departureAirport, arrivalAirport, distance, selected.getName()));
+        }
+
+        LocalDateTime firstDeparture = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Integer> flightIds = new ArrayList<>(flightCount);
+        int[] flightDistances = new int[flightCount + 1];
+        flight.prepareBulkLoad(flightCount);
+        bookingEngine.prepareBulkLoad(flightCount);
+        for (int i = 0; i < flightCount; i++) {
+            String routeName = routes.get(random.nextInt(routes.size()));
+            LocalDateTime departure = firstDeparture.plusMinutes(random.nextInt(30 * 24 * 12) * 5L);
+            LocalDateTime arrival = departure.plusMinutes(30 + route.getDistance(routeName) * 60L / 800);
+            flight.loadFlight(i + 1, "LO" + (1000 + i), routeName, departure, arrival);
+            flightIds.add(i + 1);
+            flightDistances[i + 1] = route.getDistance(routeName);
+        }
+
+        Client[] generatedClients = new Client[clientCount];
+        clients.prepareBulkLoad(clientCount);
+        int phoneStep = Math.max(1, 400000000 / clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            boolean isCompany = random.nextInt(20) == 0;
+            String phone = String.valueOf(500000000 + i * phoneStep + random.nextInt(phoneStep));
+            generatedClients[i] = clients.loadClient("Client " + (i + 1), phone, isCompany, isCompany ? 1 + random.nextInt(20) : 0);
+        }
+
+        for (int i = 0; i < ticketCount; i++) {
+            int flightId = flightIds.get(random.nextInt(flightCount));
+            for (int probe = 0; probe < 8 && bookingEngine.getAvailableSeats(flightId) == 0; probe++) {
+                flightId = flightIds.get(random.nextInt(flightCount));
+            }
+            long price = (2900 + flightDistances[flightId] * 9L) * (75 + random.nextInt(100)) / 100;
+            bookingEngine.restoreTicket(flightId, generatedClients[random.nextInt(clientCount)], null, price, 0);
+        }
+    }
+}
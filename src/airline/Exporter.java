@@ -0,0 +1,364 @@
+package airline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+class Exporter {
+    enum Format {
+        CSV(".csv"),
+        JSONL(".jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name.trim())) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final int BUFFER_SIZE = Integer.getInteger("airline.export.buffer", 1 << 16);
+
+    private Airport airport;
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+    private ClientRegistry clients;
+    private BookingEngine bookingEngine;
+
+    public Exporter(Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) {
+        this.airport = airport;
+        this.airplane = airplane;
+        this.route = route;
+        this.flight = flight;
+        this.clients = clients;
+        this.bookingEngine = bookingEngine;
+    }
+
+    public Map<Path, Long> exportAll(Path directory, Format format) throws IOException {
+        Files.createDirectories(directory);
+        Map<Path, Long> exported = new LinkedHashMap<>();
+        Path path = directory.resolve("airports" + format.getExtension());
+        exported.put(path, exportAirports(path, format));
+        path = directory.resolve("airplanes" + format.getExtension());
+        exported.put(path, exportAirplanes(path, format));
+        path = directory.resolve("routes" + format.getExtension());
+        exported.put(path, exportRoutes(path, format));
+        path = directory.resolve("flights" + format.getExtension());
+        exported.put(path, exportFlights(path, format));
+        path = directory.resolve("clients" + format.getExtension());
+        exported.put(path, exportClients(path, format));
+        path = directory.resolve("tickets" + format.getExtension());
+        exported.put(path, exportTickets(path, format));
+        path = directory.resolve("flight-report" + format.getExtension());
+        exported.put(path, exportFlightReport(path, format));
+        path = directory.resolve("route-report" + format.getExtension());
+        exported.put(path, exportRouteReport(path, format));
+        return exported;
+    }
+
+    public long exportAirports(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "name", "airplanes")) {
+            for (String airportName : airport.getAirports()) {
+                table.value(airportName).value(airplane.getAirplanesAt(airportName).size()).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    public long exportAirplanes(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "name", "seats", "range", "airport")) {
+            for (Airplane.AirplaneDetails airplaneDetails : airplane.getAirplanes()) {
+                table.value(airplaneDetails.getName()).value(airplaneDetails.getSeatCount()).value(airplaneDetails.getRange())
+                        .value(airplaneDetails.getAirportName()).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    public long exportRoutes(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "route", "departure", "arrival", "distance", "airplane")) {
+            for (String routeName : route.getRoutes()) {
+                table.value(routeName).value(route.getDepartureAirport(routeName)).value(route.getArrivalAirport(routeName))
+                        .value(route.getDistance(routeName)).value(route.getAirplane(routeName)).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    public long exportFlights(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "id", "name", "route", "departure", "arrival", "airplane")) {
+            for (Flight.FlightDetails flightDetails : flight.getFlights()) {
+                table.value(flightDetails.getId()).value(flightDetails.getName()).value(flightDetails.getRoute())
+                        .value(flightDetails.getDeparture().toString()).value(flightDetails.getArrival().toString())
+                        .value(flightDetails.getAirplane()).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    public long exportClients(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "id", "name", "phone", "company", "airplanes", "tickets")) {
+            for (Client client : clients.getClients()) {
+                table.value(client.getId()).value(client.getName()).value(client.getPhone()).value(client.isCompany())
+                        .value(client.getAirplaneCount()).value(client.getTickets().size()).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    public long exportTickets(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "number", "flight", "client", "seat", "price", "bookedAt")) {
+            for (Ticket ticket : bookingEngine.getTickets()) {
+                table.value(ticket.getNumber()).value(ticket.getFlightId());
+                if (ticket.getClient() != null) {
+                    table.value(ticket.getClient().getId());
+                } else {
+                    table.value(null);
+                }
+                table.value(ticket.getSeat()).money(ticket.getPrice()).value(ticket.getBookedAt()).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    public long exportFlightReport(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "id", "name", "route", "departure", "airplane", "capacity", "sold", "loadFactor", "revenue")) {
+            for (Flight.FlightDetails flightDetails : flight.getFlights()) {
+                int flightId = flightDetails.getId();
+                int capacity = bookingEngine.peekCapacity(flightId);
+                int sold = bookingEngine.peekSoldSeats(flightId);
+                table.value(flightId).value(flightDetails.getName()).value(flightDetails.getRoute())
+                        .value(flightDetails.getDeparture().toString()).value(flightDetails.getAirplane())
+                        .value(capacity).value(sold).ratio(sold, capacity).money(bookingEngine.getRevenue(flightId)).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    public long exportRouteReport(Path path, Format format) throws IOException {
+        try (Table table = Table.open(path, format, "route", "distance", "flights", "capacity", "sold", "loadFactor", "revenue")) {
+            for (String routeName : route.getRoutes()) {
+                int flights = 0;
+                long capacity = 0;
+                long sold = 0;
+                long revenue = 0;
+                for (Flight.FlightDetails flightDetails : flight.getFlightsForRoute(routeName)) {
+                    int flightId = flightDetails.getId();
+                    flights++;
+                    capacity += bookingEngine.peekCapacity(flightId);
+                    sold += bookingEngine.peekSoldSeats(flightId);
+                    revenue += bookingEngine.getRevenue(flightId);
+                }
+                table.value(routeName).value(route.getDistance(routeName)).value(flights).value(capacity).value(sold)
+                        .ratio(sold, capacity).money(revenue).endRow();
+            }
+            return table.getRows();
+        }
+    }
+
+    private abstract static class Table implements Closeable {
+        protected ChannelWriter out;
+        protected String[] columns;
+        protected int column;
+        private long rows;
+
+        Table(ChannelWriter out, String[] columns) {
+            this.out = out;
+            this.columns = columns;
+        }
+
+        static Table open(Path path, Format format, String... columns) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            ChannelWriter out = new ChannelWriter(channel, BUFFER_SIZE);
+            return format == Format.CSV ? new CsvTable(out, columns) : new JsonTable(out, columns);
+        }
+
+        abstract Table value(String value) throws IOException;
+
+        abstract Table value(long value) throws IOException;
+
+        abstract Table value(boolean value) throws IOException;
+
+        abstract Table money(long cents) throws IOException;
+
+        abstract Table ratio(long numerator, long denominator) throws IOException;
+
+        void endRow() throws IOException {
+            if (column != columns.length) {
+                throw new IllegalStateException("Row has " + column + " of " + columns.length + " columns.");
+            }
+            finishRow();
+            out.write('\n');
+            column = 0;
+            rows++;
+        }
+
+        abstract void finishRow() throws IOException;
+
+        long getRows() {
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        static String format(long numerator, long denominator) {
+            return denominator > 0 ? String.format(Locale.ROOT, "%.4f", (double) numerator / denominator) : "";
+        }
+    }
+
+    private static class CsvTable extends Table {
+        CsvTable(ChannelWriter out, String[] columns) throws IOException {
+            super(out, columns);
+            for (String name : columns) {
+                value(name);
+            }
+            finishRow();
+            out.write('\n');
+            column = 0;
+        }
+
+        private void separate() throws IOException {
+            if (column++ > 0) {
+                out.write(',');
+            }
+        }
+
+        @Override
+        Table value(String value) throws IOException {
+            separate();
+            if (value == null) {
+                return this;
+            }
+            boolean quoted = false;
+            for (int i = 0; i < value.length() && !quoted; i++) {
+                char c = value.charAt(i);
+                quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quoted) {
+                out.write(value);
+                return this;
+            }
+            out.write('"');
+            int start = 0;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == '"') {
+                    out.write(value, start, i + 1 - start);
+                    out.write('"');
+                    start = i + 1;
+                }
+            }
+            out.write(value, start, value.length() - start);
+            out.write('"');
+            return this;
+        }
+
+        @Override
+        Table value(long value) throws IOException {
+            separate();
+            out.print(value);
+            return this;
+        }
+
+        @Override
+        Table value(boolean value) throws IOException {
+            separate();
+            out.write(value ? "true" : "false");
+            return this;
+        }
+
+        @Override
+        Table money(long cents) throws IOException {
+            separate();
+            out.write(FareEngine.format(cents));
+            return this;
+        }
+
+        @Override
+        Table ratio(long numerator, long denominator) throws IOException {
+            separate();
+            out.write(format(numerator, denominator));
+            return this;
+        }
+
+        @Override
+        void finishRow() {
+        }
+    }
+
+    private static class JsonTable extends Table {
+        private JsonWriter json;
+
+        JsonTable(ChannelWriter out, String[] columns) {
+            super(out, columns);
+            json = new JsonWriter(out);
+        }
+
+        private JsonWriter name() throws IOException {
+            if (column == 0) {
+                json.beginObject();
+            }
+            return json.name(columns[column++]);
+        }
+
+        @Override
+        Table value(String value) throws IOException {
+            name().value(value);
+            return this;
+        }
+
+        @Override
+        Table value(long value) throws IOException {
+            name().value(value);
+            return this;
+        }
+
+        @Override
+        Table value(boolean value) throws IOException {
+            name().value(value);
+            return this;
+        }
+
+        @Override
+        Table money(long cents) throws IOException {
+            name().value(cents / 100.0);
+            return this;
+        }
+
+        @Override
+        Table ratio(long numerator, long denominator) throws IOException {
+            if (denominator > 0) {
+                name().value(Math.round(10000.0 * numerator / denominator) / 10000.0);
+            } else {
+                name().nullValue();
+            }
+            return this;
+        }
+
+        @Override
+        void finishRow() throws IOException {
+            json.endObject();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package airline;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class FareEngine {
+    enum FareClass {
+        SAVER(SeatMap.Cabin.ECONOMY, 0.75, 0.6),
+        STANDARD(SeatMap.Cabin.ECONOMY, 1.0, 0.9),
+        FLEX(SeatMap.Cabin.ECONOMY, 1.4, 1.0),
+        BUSINESS(SeatMap.Cabin.BUSINESS, 2.75, 1.0);
+
+        private final SeatMap.Cabin cabin;
+        private final double multiplier;
+        private final double closesAt;
+
+        FareClass(SeatMap.Cabin cabin, double multiplier, double closesAt) {
+            this.cabin = cabin;
+            this.multiplier = multiplier;
+            this.closesAt = closesAt;
+        }
+
+        public SeatMap.Cabin getCabin() {
+            return cabin;
+        }
+    }
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("airline.fare.ttl", 60));
+    private static final long BASE_FARE_CENTS = 2900;
+    private static final int SHORT_HAUL_KM = 800;
+    private static final double SHORT_HAUL_CENTS_PER_KM = 11;
+    private static final double LONG_HAUL_CENTS_PER_KM = 7;
+    private static final double ADVANCE_PURCHASE_DAYS = 60;
+
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+    private BookingEngine bookingEngine;
+    private Map<Integer, Quote> quotes;
+    private Map<Integer, AtomicInteger> stamps;
+
+    public FareEngine(Airplane airplane, Route route, Flight flight, BookingEngine bookingEngine) {
+        this.airplane = airplane;
+        this.route = route;
+        this.flight = flight;
+        this.bookingEngine = bookingEngine;
+        quotes = new ConcurrentHashMap<>();
+        stamps = new ConcurrentHashMap<>();
+        bookingEngine.setFareEngine(this);
+    }
+
+    public Quote quote(int flightId) {
+        long now = System.nanoTime();
+        int stamp = stamp(flightId).get();
+        Quote quote = quotes.get(flightId);
+        if (quote != null && quote.isValid(now, stamp)) {
+            return quote;
+        }
+
+        Flight.FlightDetails flightDetails = flight.getFlightDetails(flightId);
+        if (flightDetails == null) {
+            quotes.remove(flightId);
+            return null;
+        }
+        quote = compute(flightDetails, getBaseFare(flightDetails.getRoute()), LocalDateTime.now(), now, stamp);
+        cache(quote);
+        return quote;
+    }
+
+    public Map<Integer, Quote> quote(Collection<Integer> flightIds) {
+        Map<Integer, Quote> batch = new LinkedHashMap<>();
+        Map<String, Long> baseFares = new HashMap<>();
+        long now = System.nanoTime();
+        LocalDateTime clock = null;
+        for (int flightId : flightIds) {
+            int stamp = stamp(flightId).get();
+            Quote quote = quotes.get(flightId);
+            if (quote == null || !quote.isValid(now, stamp)) {
+                Flight.FlightDetails flightDetails = flight.getFlightDetails(flightId);
+                if (flightDetails == null) {
+                    continue;
+                }
+                if (clock == null) {
+                    clock = LocalDateTime.now();
+                }
+                long baseFare = baseFares.computeIfAbsent(flightDetails.getRoute(), this::getBaseFare);
+                quote = compute(flightDetails, baseFare, clock, now, stamp);
+                cache(quote);
+            }
+            batch.put(flightId, quote);
+        }
+        return batch;
+    }
+
+    public long price(int flightId, SeatMap.Cabin cabin) {
+        Quote quote = quote(flightId);
+        return quote != null ? quote.getLowest(cabin) : 0;
+    }
+
+    public void invalidate(int flightId) {
+        stamp(flightId).incrementAndGet();
+        quotes.remove(flightId);
+    }
+
+    public void invalidateAll() {
+        for (AtomicInteger stamp : stamps.values()) {
+            stamp.incrementAndGet();
+        }
+        quotes.clear();
+    }
+
+    private AtomicInteger stamp(int flightId) {
+        AtomicInteger stamp = stamps.get(flightId);
+        return stamp != null ? stamp : stamps.computeIfAbsent(flightId, k -> new AtomicInteger());
+    }
+
+    private void cache(Quote quote) {
+        AtomicInteger stamp = stamp(quote.flightId);
+        quotes.compute(quote.flightId, (flightId, cached) -> stamp.get() == quote.stamp ? quote : cached);
+    }
+
+    public static String format(long cents) {
+        return String.format(Locale.ROOT, "%d.%02d", cents / 100, cents % 100);
+    }
+
+    private long getBaseFare(String routeName) {
+        int distance = route.getDistance(routeName);
+        double cents = BASE_FARE_CENTS + Math.min(distance, SHORT_HAUL_KM) * SHORT_HAUL_CENTS_PER_KM
+                + Math.max(0, distance - SHORT_HAUL_KM) * LONG_HAUL_CENTS_PER_KM;
+        return Math.round(cents);
+    }
+
+    private Quote compute(Flight.FlightDetails flightDetails, long baseFare, LocalDateTime clock, long now, int stamp) {
+        int flightId = flightDetails.getId();
+        Airplane.AirplaneDetails airplaneDetails = airplane.getAirplaneDetails(flightDetails.getAirplane());
+        int seatCount = airplaneDetails != null ? airplaneDetails.getSeatCount() : 0;
+        double loadFactor = seatCount > 0 ? Math.min(1.0, (double) bookingEngine.getSoldSeats(flightId) / seatCount) : 1.0;
+        double daysToDeparture = Math.max(0, Duration.between(clock, flightDetails.getDeparture()).toMinutes() / 1440.0);
+
+        double demand = 0.85 + 0.9 * loadFactor * loadFactor;
+        double lateness = Math.max(0, 1 - daysToDeparture / ADVANCE_PURCHASE_DAYS);
+        double urgency = 0.9 + 0.7 * lateness * lateness;
+
+        FareClass[] fareClasses = FareClass.values();
+        long[] prices = new long[fareClasses.length];
+        boolean[] open = new boolean[fareClasses.length];
+        for (FareClass fareClass : fareClasses) {
+            prices[fareClass.ordinal()] = Math.round(baseFare * fareClass.multiplier * demand * urgency);
+            open[fareClass.ordinal()] = loadFactor < fareClass.closesAt && bookingEngine.getAvailableSeats(flightId, fareClass.cabin) > 0;
+        }
+        return new Quote(flightId, loadFactor, daysToDeparture, prices, open, now + TTL_NANOS, stamp);
+    }
+
+    public static class Quote {
+        private int flightId;
+        private double loadFactor;
+        private double daysToDeparture;
+        private long[] prices;
+        private boolean[] open;
+        private long expiresAt;
+        private int stamp;
+
+        Quote(int flightId, double loadFactor, double daysToDeparture, long[] prices, boolean[] open, long expiresAt, int stamp) {
+            this.flightId = flightId;
+            this.loadFactor = loadFactor;
+            this.daysToDeparture = daysToDeparture;
+            this.prices = prices;
+            this.open = open;
+            this.expiresAt = expiresAt;
+            this.stamp = stamp;
+        }
+
+        boolean isValid(long now, int stamp) {
+            return now - expiresAt < 0 && this.stamp == stamp;
+        }
+
+        public int getFlightId() {
+            return flightId;
+        }
+
+        public double getLoadFactor() {
+            return loadFactor;
+        }
+
+        public double getDaysToDeparture() {
+            return daysToDeparture;
+        }
+
+        public long getPrice(FareClass fareClass) {
+            return prices[fareClass.ordinal()];
+        }
+
+        public boolean isOpen(FareClass fareClass) {
+            return open[fareClass.ordinal()];
+        }
+
+        public long getLowest(SeatMap.Cabin cabin) {
+            long highest = 0;
+            for (FareClass fareClass : FareClass.values()) {
+                if (fareClass.cabin != cabin) {
+                    continue;
+                }
+                if (open[fareClass.ordinal()]) {
+                    return prices[fareClass.ordinal()];
+                }
+                highest = prices[fareClass.ordinal()];
+            }
+            return highest;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append("Flight ").append(flightId)
+                    .append(String.format(Locale.ROOT, " | Load factor: %.0f%% | Days to departure: %.1f", loadFactor * 100, daysToDeparture));
+            for (FareClass fareClass : FareClass.values()) {
+                text.append(" | ").append(fareClass).append(' ').append(open[fareClass.ordinal()] ? format(prices[fareClass.ordinal()]) : "closed");
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+class FleetAssigner {
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+    private static final Comparator<Airplane.AirplaneDetails> SMALLEST_FIRST = Comparator.comparingInt(Airplane.AirplaneDetails::getSeatCount)
+            .thenComparingInt(Airplane.AirplaneDetails::getRange)
+            .thenComparing(Airplane.AirplaneDetails::getName);
+
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+
+    public FleetAssigner(Airplane airplane, Route route, Flight flight) {
+        this.airplane = airplane;
+        this.route = route;
+        this.flight = flight;
+    }
+
+    public Plan plan() {
+        Map<String, List<String>> routesByAirport = new LinkedHashMap<>();
+        for (String routeName : route.getRoutes()) {
+            routesByAirport.computeIfAbsent(route.getDepartureAirport(routeName), k -> new ArrayList<>()).add(routeName);
+        }
+
+        List<Problem> problems = new ArrayList<>(routesByAirport.size());
+        for (Map.Entry<String, List<String>> entry : routesByAirport.entrySet()) {
+            problems.add(new Problem(entry.getKey(), entry.getValue()));
+        }
+
+        Plan plan = new Plan();
+        for (Plan airportPlan : ForkJoinPool.commonPool().invoke(new SolveTask(problems, 0, problems.size()))) {
+            plan.assignments.putAll(airportPlan.assignments);
+            plan.unassigned.addAll(airportPlan.unassigned);
+        }
+        return plan;
+    }
+
+    public int apply(Plan plan) {
+        return route.assignAirplanes(plan.assignments);
+    }
+
+    private class Problem {
+        private String airportName;
+        private List<String> routes;
+
+        Problem(String airportName, List<String> routes) {
+            this.airportName = airportName;
+            this.routes = routes;
+        }
+
+        Plan solve() {
+            List<Airplane.AirplaneDetails> fleet = new ArrayList<>(airplane.getAirplanesAt(airportName));
+            fleet.sort(SMALLEST_FIRST);
+            int words = (fleet.size() + 63) >>> 6;
+
+            int routeCount = routes.size();
+            long[][] feasible = new long[routeCount][words];
+            int[] options = new int[routeCount];
+            int[] demand = new int[routeCount];
+            for (int r = 0; r < routeCount; r++) {
+                String routeName = routes.get(r);
+                int distance = route.getDistance(routeName);
+                demand[r] = flight.getPeakSoldSeats(routeName);
+                for (int a = 0; a < fleet.size(); a++) {
+                    Airplane.AirplaneDetails airplaneDetails = fleet.get(a);
+                    if (airplaneDetails.getRange() >= distance && airplaneDetails.getSeatCount() >= demand[r]) {
+                        feasible[r][a >>> 6] |= 1L << a;
+                        options[r]++;
+                    }
+                }
+            }
+
+            Integer[] order = new Integer[routeCount];
+            for (int r = 0; r < routeCount; r++) {
+                order[r] = r;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(r -> options[r])
+                    .thenComparing(r -> demand[r], Comparator.reverseOrder())
+                    .thenComparing(r -> route.getDistance(routes.get(r)), Comparator.reverseOrder()));
+
+            long[] free = new long[words];
+            for (int a = 0; a < fleet.size(); a++) {
+                free[a >>> 6] |= 1L << a;
+            }
+            int[] owner = new int[fleet.size()];
+            Arrays.fill(owner, -1);
+            int[] assigned = new int[routeCount];
+            Arrays.fill(assigned, -1);
+
+            List<Integer> pending = new ArrayList<>();
+            for (int r : order) {
+                int a = firstCommonBit(feasible[r], free);
+                if (a < 0) {
+                    pending.add(r);
+                    continue;
+                }
+                free[a >>> 6] &= ~(1L << a);
+                owner[a] = r;
+                assigned[r] = a;
+            }
+
+            for (int r : pending) {
+                augment(r, feasible, owner, assigned, new long[words]);
+            }
+
+            Plan plan = new Plan();
+            for (int r = 0; r < routeCount; r++) {
+                if (assigned[r] >= 0) {
+                    plan.assignments.put(routes.get(r), fleet.get(assigned[r]).getName());
+                } else {
+                    plan.unassigned.add(routes.get(r));
+                }
+            }
+            return plan;
+        }
+
+        private boolean augment(int r, long[][] feasible, int[] owner, int[] assigned, long[] visited) {
+            long[] candidates = feasible[r];
+            for (int word = 0; word < candidates.length; word++) {
+                long bits = candidates[word] & ~visited[word];
+                while (bits != 0) {
+                    int a = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if ((visited[word] & (1L << a)) != 0) {
+                        continue;
+                    }
+                    visited[word] |= 1L << a;
+                    if (owner[a] < 0 || augment(owner[a], feasible, owner, assigned, visited)) {
+                        owner[a] = r;
+                        assigned[r] = a;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static int firstCommonBit(long[] first, long[] second) {
+        for (int word = 0; word < first.length; word++) {
+            long bits = first[word] & second[word];
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("serial")
+    private static class SolveTask extends RecursiveTask<List<Plan>> {
+        private List<Problem> problems;
+        private int from;
+        private int to;
+
+        SolveTask(List<Problem> problems, int from, int to) {
+            this.problems = problems;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Plan> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                List<Plan> plans = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    plans.add(problems.get(i).solve());
+                }
+                return plans;
+            }
+
+            int middle = (from + to) >>> 1;
+            SolveTask left = new SolveTask(problems, from, middle);
+            left.fork();
+            List<Plan> plans = new SolveTask(problems, middle, to).compute();
+            List<Plan> leftPlans = left.join();
+            leftPlans.addAll(plans);
+            return leftPlans;
+        }
+    }
+
+    public static class Plan {
+        private Map<String, String> assignments;
+        private List<String> unassigned;
+
+        Plan() {
+            assignments = new HashMap<>();
+            unassigned = new ArrayList<>();
+        }
+
+        public Map<String, String> getAssignments() {
+            return Collections.unmodifiableMap(assignments);
+        }
+
+        public List<String> getUnassigned() {
+            return Collections.unmodifiableList(unassigned);
+        }
+    }
+}
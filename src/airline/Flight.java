@@ -0,0 +1,387 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+class Flight {
+    public static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm dd.MM.yyyy");
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private static final Comparator<FlightDetails> BY_DEPARTURE = Comparator.comparing(FlightDetails::getDeparture).thenComparingInt(FlightDetails::getId);
+    private static final Comparator<FlightDetails> BY_ARRIVAL = Comparator.comparing(FlightDetails::getArrival).thenComparingInt(FlightDetails::getId);
+
+    private Map<Integer, FlightDetails> flights;
+    private NavigableSet<FlightDetails> flightsByDeparture;
+    private Map<String, NavigableSet<FlightDetails>> routeToFlights;
+    private Map<String, NavigableSet<FlightDetails>> airportToDepartures;
+    private Map<String, NavigableSet<FlightDetails>> airportToArrivals;
+    private Route route;
+    private SymbolTable symbols;
+    private int nextFlightId;
+    private int version;
+    private Journal journal;
+    private RotationChecker rotationChecker;
+    private BookingEngine bookingEngine;
+
+    public Flight(Route route) {
+        flights = new LinkedHashMap<>();
+        flightsByDeparture = new TreeSet<>(BY_DEPARTURE);
+        routeToFlights = new HashMap<>();
+        airportToDepartures = new HashMap<>();
+        airportToArrivals = new HashMap<>();
+        nextFlightId = 1;
+        this.route = route;
+        symbols = route.getSymbols();
+        route.setFlight(this);
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public void setRotationChecker(RotationChecker rotationChecker) {
+        this.rotationChecker = rotationChecker;
+    }
+
+    public void setBookingEngine(BookingEngine bookingEngine) {
+        this.bookingEngine = bookingEngine;
+    }
+
+    public FlightDetails createFlight(String flightName, String selectedRoute, String departureTime, String departureDate, String arrivalTime, String arrivalDate) {
+        LocalDateTime departure;
+        LocalDateTime arrival;
+        try {
+            departure = LocalDateTime.parse(departureTime + " " + departureDate, DATE_TIME_FORMAT);
+            arrival = LocalDateTime.parse(arrivalTime + " " + arrivalDate, DATE_TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            Log.error("Error: Invalid date or time format (expected HH:mm and dd.MM.yyyy).");
+            return null;
+        }
+
+        return createFlight(flightName, selectedRoute, departure, arrival);
+    }
+
+    public FlightDetails createFlight(String flightName, String selectedRoute, LocalDateTime departure, LocalDateTime arrival) {
+        return createFlight(nextFlightId, flightName, selectedRoute, departure, arrival);
+    }
+
+    public FlightDetails createFlight(int flightId, String flightName, String route, LocalDateTime departure, LocalDateTime arrival) {
+        long started = Metrics.CREATE_FLIGHT.start();
+        if (flights.containsKey(flightId)) {
+            Log.error("Error: Flight with the same id already exists.");
+            return null;
+        }
+
+        if (this.route.getDepartureAirport(route) == null) {
+            Log.error("Error: Route not found.");
+            return null;
+        }
+
+        if (arrival.isBefore(departure)) {
+            Log.error("Error: Arrival cannot be before departure.");
+            return null;
+        }
+
+        if (rotationChecker != null) {
+            String airplaneName = this.route.getAirplane(route);
+            FlightDetails conflict = rotationChecker.findConflict(airplaneName, departure, arrival);
+            if (conflict != null) {
+                Log.error("Error: Airplane {} is already scheduled on flight {} at that time.", airplaneName, conflict.getId());
+                return null;
+            }
+        }
+
+        FlightDetails flightDetails = loadFlight(flightId, flightName, route, departure, arrival);
+        if (journal != null) {
+            journal.record(Journal.CREATE_FLIGHT, flightId, flightName, route, departure.format(DATE_TIME_FORMAT), arrival.format(DATE_TIME_FORMAT));
+        }
+        Metrics.CREATE_FLIGHT.stop(started);
+        Log.info("Flight created: {}", flightDetails);
+        if (rotationChecker != null) {
+            for (RotationChecker.Violation violation : rotationChecker.checkTurnaround(flightDetails)) {
+                Log.warn("Warning: {}", violation);
+            }
+        }
+        return flightDetails;
+    }
+
+    public FlightDetails loadFlight(int flightId, String flightName, String route, LocalDateTime departure, LocalDateTime arrival) {
+        FlightDetails flightDetails = new FlightDetails(flightId, flightName, route, departure, arrival);
+        FlightDetails replaced = flights.put(flightId, flightDetails);
+        if (replaced != null) {
+            removeFlightIndexes(replaced);
+        }
+        flightsByDeparture.add(flightDetails);
+        routeToFlights.computeIfAbsent(flightDetails.getRoute(), k -> new TreeSet<>(BY_DEPARTURE)).add(flightDetails);
+        if (flightDetails.getDepartureAirport() != null) {
+            airportToDepartures.computeIfAbsent(flightDetails.getDepartureAirport(), k -> new TreeSet<>(BY_DEPARTURE)).add(flightDetails);
+            airportToArrivals.computeIfAbsent(flightDetails.getArrivalAirport(), k -> new TreeSet<>(BY_ARRIVAL)).add(flightDetails);
+        }
+        if (rotationChecker != null) {
+            rotationChecker.add(flightDetails);
+        }
+        nextFlightId = Math.max(nextFlightId, flightId + 1);
+        version++;
+        return flightDetails;
+    }
+
+    public void prepareBulkLoad(int flightCount) {
+        if (flights.isEmpty()) {
+            flights = LinkedHashMap.newLinkedHashMap(flightCount);
+        }
+    }
+
+    public Result deleteFlight(int flightId) {
+        long started = Metrics.DELETE_FLIGHT.start();
+        FlightDetails flightToDelete = flights.remove(flightId);
+        if (flightToDelete == null) {
+            Log.error("Error: Flight not found.");
+            return Result.NOT_FOUND;
+        }
+
+        removeFlightIndexes(flightToDelete);
+        if (bookingEngine != null) {
+            bookingEngine.cancelTickets(flightId);
+        }
+        version++;
+        if (journal != null) {
+            journal.record(Journal.DELETE_FLIGHT, flightId);
+        }
+        Metrics.DELETE_FLIGHT.stop(started);
+        Log.info("Flight deleted: {}", flightToDelete);
+        return Result.OK;
+    }
+
+    public void deleteFlightsForRoute(String route) {
+        NavigableSet<FlightDetails> routeFlights = routeToFlights.get(route);
+        if (routeFlights == null) {
+            return;
+        }
+
+        for (FlightDetails flightToDelete : new ArrayList<>(routeFlights)) {
+            flights.remove(flightToDelete.getId());
+            removeFlightIndexes(flightToDelete);
+            if (bookingEngine != null) {
+                bookingEngine.cancelTickets(flightToDelete.getId());
+            }
+            Log.info("Flight deleted: {}", flightToDelete);
+        }
+        version++;
+    }
+
+    private void removeFlightIndexes(FlightDetails flightDetails) {
+        flightsByDeparture.remove(flightDetails);
+        removeIndexed(routeToFlights, flightDetails.getRoute(), flightDetails);
+        if (flightDetails.getDepartureAirport() != null) {
+            removeIndexed(airportToDepartures, flightDetails.getDepartureAirport(), flightDetails);
+            removeIndexed(airportToArrivals, flightDetails.getArrivalAirport(), flightDetails);
+        }
+        if (rotationChecker != null) {
+            rotationChecker.remove(flightDetails);
+        }
+    }
+
+    public void reassignAirplane(String route) {
+        NavigableSet<FlightDetails> routeFlights = routeToFlights.get(route);
+        if (routeFlights == null) {
+            return;
+        }
+
+        int airplaneId = symbols.intern(this.route.getAirplane(route));
+        for (FlightDetails flightDetails : routeFlights) {
+            if (rotationChecker != null) {
+                rotationChecker.remove(flightDetails);
+            }
+            flightDetails.airplaneId = airplaneId;
+            if (rotationChecker != null) {
+                rotationChecker.add(flightDetails);
+            }
+        }
+        version++;
+        if (bookingEngine != null) {
+            bookingEngine.refreshCapacity(route);
+        }
+    }
+
+    private void removeIndexed(Map<String, NavigableSet<FlightDetails>> index, String key, FlightDetails flightDetails) {
+        NavigableSet<FlightDetails> indexed = index.get(key);
+        if (indexed != null) {
+            indexed.remove(flightDetails);
+            if (indexed.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    public Collection<FlightDetails> getFlights() {
+        return flights.values();
+    }
+
+    public FlightDetails getFlightDetails(int flightId) {
+        return flights.get(flightId);
+    }
+
+    public NavigableSet<FlightDetails> getFlightsByDeparture() {
+        return Collections.unmodifiableNavigableSet(flightsByDeparture);
+    }
+
+    public NavigableSet<FlightDetails> getFlightsForRoute(String route) {
+        return Collections.unmodifiableNavigableSet(routeToFlights.getOrDefault(route, Collections.emptyNavigableSet()));
+    }
+
+    public int getPeakSoldSeats(String route) {
+        NavigableSet<FlightDetails> routeFlights = routeToFlights.get(route);
+        if (routeFlights == null || bookingEngine == null) {
+            return 0;
+        }
+        int peak = 0;
+        for (FlightDetails flightDetails : routeFlights) {
+            peak = Math.max(peak, bookingEngine.peekSoldSeats(flightDetails.getId()));
+        }
+        return peak;
+    }
+
+    public NavigableSet<FlightDetails> getDepartures(String airportName) {
+        return Collections.unmodifiableNavigableSet(airportToDepartures.getOrDefault(airportName, Collections.emptyNavigableSet()));
+    }
+
+    public NavigableSet<FlightDetails> getArrivals(String airportName) {
+        return Collections.unmodifiableNavigableSet(airportToArrivals.getOrDefault(airportName, Collections.emptyNavigableSet()));
+    }
+
+    public NavigableSet<FlightDetails> getFlightsDeparting(LocalDateTime from, LocalDateTime to) {
+        return window(flightsByDeparture, from, to);
+    }
+
+    public NavigableSet<FlightDetails> getFlightsForRoute(String route, LocalDateTime from, LocalDateTime to) {
+        return window(routeToFlights.get(route), from, to);
+    }
+
+    public NavigableSet<FlightDetails> getDepartures(String airportName, LocalDateTime from, LocalDateTime to) {
+        return window(airportToDepartures.get(airportName), from, to);
+    }
+
+    public NavigableSet<FlightDetails> getDepartures(String airportName, LocalDate date) {
+        return getDepartures(airportName, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    public NavigableSet<FlightDetails> getArrivals(String airportName, LocalDateTime from, LocalDateTime to) {
+        return window(airportToArrivals.get(airportName), from, to);
+    }
+
+    public List<FlightDetails> page(NavigableSet<FlightDetails> index, FlightDetails after, int pageSize) {
+        List<FlightDetails> page = new ArrayList<>(Math.max(0, Math.min(pageSize, 256)));
+        Iterator<FlightDetails> iterator = (after == null ? index : index.tailSet(after, false)).iterator();
+        while (page.size() < pageSize && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    private NavigableSet<FlightDetails> window(NavigableSet<FlightDetails> index, LocalDateTime from, LocalDateTime to) {
+        if (index == null || !from.isBefore(to)) {
+            return Collections.emptyNavigableSet();
+        }
+        return Collections.unmodifiableNavigableSet(index.subSet(probe(from, from), true, probe(to, to), false));
+    }
+
+    private FlightDetails probe(LocalDateTime departure, LocalDateTime arrival) {
+        return new FlightDetails(Integer.MIN_VALUE, null, null, departure, arrival);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void viewFlights() {
+        System.out.println("Flights:");
+        for (FlightDetails flight : flights.values()) {
+            System.out.println(flight);
+        }
+    }
+
+    public void clear() {
+        flights.clear();
+        flightsByDeparture.clear();
+        routeToFlights.clear();
+        airportToDepartures.clear();
+        airportToArrivals.clear();
+        if (rotationChecker != null) {
+            rotationChecker.clear();
+        }
+        nextFlightId = 1;
+        version++;
+    }
+
+    public class FlightDetails {
+        private int id;
+        private String name;
+        private int routeId;
+        private int departureAirportId;
+        private int arrivalAirportId;
+        private int airplaneId;
+        private LocalDateTime departure;
+        private LocalDateTime arrival;
+
+        public FlightDetails(int id, String name, String route, LocalDateTime departure, LocalDateTime arrival) {
+            this.id = id;
+            this.name = name;
+            this.routeId = symbols.intern(route);
+            this.departureAirportId = route != null ? symbols.intern(Flight.this.route.getDepartureAirport(route)) : -1;
+            this.arrivalAirportId = route != null ? symbols.intern(Flight.this.route.getArrivalAirport(route)) : -1;
+            this.airplaneId = route != null ? symbols.intern(Flight.this.route.getAirplane(route)) : -1;
+            this.departure = departure;
+            this.arrival = arrival;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRoute() {
+            return symbols.name(routeId);
+        }
+
+        public String getDepartureAirport() {
+            return symbols.name(departureAirportId);
+        }
+
+        public String getArrivalAirport() {
+            return symbols.name(arrivalAirportId);
+        }
+
+        public String getAirplane() {
+            return symbols.name(airplaneId);
+        }
+
+        public LocalDateTime getDeparture() {
+            return departure;
+        }
+
+        public LocalDateTime getArrival() {
+            return arrival;
+        }
+
+        @Override
+        public String toString() {
+            return id + ". " + name + " | Route: " + getRoute() + " | Departure: " + departure.format(DATE_TIME_FORMAT) + " | Arrival: " + arrival.format(DATE_TIME_FORMAT);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package airline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+class Journal {
+    public static final String CREATE_AIRPORT = "CREATE_AIRPORT";
+    public static final String DELETE_AIRPORT = "DELETE_AIRPORT";
+    public static final String CREATE_AIRPLANE = "CREATE_AIRPLANE";
+    public static final String DELETE_AIRPLANE = "DELETE_AIRPLANE";
+    public static final String CREATE_ROUTE = "CREATE_ROUTE";
+    public static final String DELETE_ROUTE = "DELETE_ROUTE";
+    public static final String ASSIGN_AIRPLANE = "ASSIGN_AIRPLANE";
+    public static final String RELEASE_AIRPLANE = "RELEASE_AIRPLANE";
+    public static final String CREATE_FLIGHT = "CREATE_FLIGHT";
+    public static final String DELETE_FLIGHT = "DELETE_FLIGHT";
+    public static final String CREATE_CLIENT = "CREATE_CLIENT";
+    public static final String DELETE_CLIENT = "DELETE_CLIENT";
+    public static final String BOOK_TICKET = "BOOK_TICKET";
+
+    private static final int MAX_BATCH = 4096;
+    private static final Entry CLOSE = new Entry(-1, null);
+
+    private Path path;
+    private FileChannel channel;
+    private BlockingQueue<Entry> pending;
+    private Thread writer;
+    private ReentrantLock durableLock;
+    private Condition durableChanged;
+    private long lastSequence;
+    private volatile long durableSequence;
+    private volatile boolean recording;
+    private volatile IOException failure;
+    private AtomicLong recordsSinceSnapshot;
+    private long compactionThreshold;
+
+    public Journal(String fileName, long compactionThreshold) throws IOException {
+        path = Paths.get(fileName);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        pending = new LinkedBlockingQueue<>();
+        durableLock = new ReentrantLock();
+        durableChanged = durableLock.newCondition();
+        recording = true;
+        recordsSinceSnapshot = new AtomicLong();
+        this.compactionThreshold = compactionThreshold;
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void record(String operation, Object... fields) {
+        if (!recording) {
+            return;
+        }
+
+        StringBuilder payload = new StringBuilder(operation);
+        for (Object field : fields) {
+            payload.append('\t');
+            escape(String.valueOf(field), payload);
+        }
+
+        synchronized (this) {
+            long sequence = ++lastSequence;
+            String body = sequence + "\t" + payload;
+            pending.add(new Entry(sequence, body + "\t" + checksum(body) + "\n"));
+        }
+        recordsSinceSnapshot.incrementAndGet();
+    }
+
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized void advanceTo(long sequence) {
+        if (sequence <= lastSequence) {
+            return;
+        }
+
+        lastSequence = sequence;
+        if (pending.isEmpty()) {
+            durableLock.lock();
+            try {
+                durableSequence = Math.max(durableSequence, sequence);
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+
+    public boolean needsCompaction() {
+        return recordsSinceSnapshot.get() >= compactionThreshold;
+    }
+
+    public void sync() {
+        if (!awaitDurable(getLastSequence()) && failure != null) {
+            Log.error("Error occurred while writing journal: {}", failure.getMessage());
+        }
+    }
+
+    public boolean awaitDurable(long sequence) {
+        durableLock.lock();
+        try {
+            while (durableSequence < sequence && failure == null && writer.isAlive()) {
+                durableChanged.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            durableLock.unlock();
+        }
+        return failure == null;
+    }
+
+    public void snapshotWritten(long sequence) {
+        sync();
+        synchronized (this) {
+            recordsSinceSnapshot.set(lastSequence - sequence);
+            if (lastSequence == sequence) {
+                try {
+                    channel.truncate(0);
+                } catch (IOException e) {
+                    Log.error("Error occurred while truncating journal: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    public int replay(long afterSequence, Consumer<String[]> handler) {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        int applied = 0;
+        long tail = afterSequence;
+        long validEnd = 0;
+        boolean damaged = false;
+        try (InputStream input = Files.newInputStream(path)) {
+            byte[] buffer = new byte[1 << 16];
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            long offset = 0;
+            int read;
+            while (!damaged && (read = input.read(buffer)) >= 0) {
+                int start = 0;
+                for (int i = 0; i < read && !damaged; i++) {
+                    if (buffer[i] != '\n') {
+                        continue;
+                    }
+                    line.write(buffer, start, i - start);
+                    start = i + 1;
+                    String text = line.toString(StandardCharsets.UTF_8);
+                    line.reset();
+
+                    int checksumStart = text.lastIndexOf('\t');
+                    if (checksumStart < 0 || !text.substring(checksumStart + 1).equals(checksum(text.substring(0, checksumStart)))) {
+                        damaged = true;
+                        break;
+                    }
+
+                    String[] fields = text.substring(0, checksumStart).split("\t", -1);
+                    long sequence = Long.parseLong(fields[0]);
+                    validEnd = offset + start;
+                    tail = Math.max(tail, sequence);
+                    if (sequence <= afterSequence) {
+                        continue;
+                    }
+
+                    String[] record = new String[fields.length - 1];
+                    for (int j = 1; j < fields.length; j++) {
+                        record[j - 1] = unescape(fields[j]);
+                    }
+                    handler.accept(record);
+                    applied++;
+                }
+                line.write(buffer, start, Math.max(0, read - start));
+                offset += read;
+            }
+            damaged = damaged || line.size() > 0;
+        } catch (IOException | NumberFormatException e) {
+            Log.error("Error occurred while reading journal: {}", e.getMessage());
+            damaged = false;
+        }
+
+        if (damaged) {
+            Log.error("Error: Journal record is damaged, discarding the journal after byte {}.", validEnd);
+            synchronized (this) {
+                try {
+                    channel.truncate(validEnd);
+                } catch (IOException e) {
+                    Log.error("Error occurred while truncating journal: {}", e.getMessage());
+                }
+            }
+        }
+        advanceTo(tail);
+        recordsSinceSnapshot.set(applied);
+        return applied;
+    }
+
+    public void close() {
+        pending.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Log.error("Error occurred while closing journal: {}", e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch, MAX_BATCH - 1);
+
+            long batchSequence = durableSequence;
+            for (Entry entry : batch) {
+                if (entry == CLOSE) {
+                    running = false;
+                } else {
+                    text.append(entry.line);
+                    batchSequence = entry.sequence;
+                }
+            }
+
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+                running = false;
+            }
+
+            batch.clear();
+            text.setLength(0);
+            durableLock.lock();
+            try {
+                if (failure == null) {
+                    durableSequence = batchSequence;
+                }
+                durableChanged.signalAll();
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+
+    private static String checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static class Entry {
+        private final long sequence;
+        private final String line;
+
+        Entry(long sequence, String line) {
+            this.sequence = sequence;
+            this.line = line;
+        }
+    }
+}
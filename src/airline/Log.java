@@ -0,0 +1,269 @@
+package airline;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+class Log {
+    enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(64, Integer.getInteger("airline.log.capacity", 8192)));
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_ARGUMENTS = 4;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final ThreadLocal<StringBuilder> CAPTURE = new ThreadLocal<>();
+
+    private static final Event[] RING = new Event[CAPACITY];
+    private static final AtomicLongArray SEQUENCES = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong TAIL = new AtomicLong();
+    private static volatile long head;
+    private static volatile boolean draining;
+    private static volatile int threshold = parseLevel(System.getProperty("airline.log.level", "INFO")).ordinal();
+    private static final Thread DRAINER;
+    private static Writer eventFile;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            RING[i] = new Event();
+            SEQUENCES.set(i, i);
+        }
+        String eventFileName = System.getProperty("airline.log.file");
+        if (eventFileName != null) {
+            try {
+                eventFile = Files.newBufferedWriter(Paths.get(eventFileName), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.out.println("Error occurred while opening log file: " + e.getMessage());
+            }
+        }
+        DRAINER = new Thread(Log::drainLoop, "log-drain");
+        DRAINER.setDaemon(true);
+        DRAINER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    private Log() {
+    }
+
+    private static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Unknown log level " + name + ", using INFO.");
+            return Level.INFO;
+        }
+    }
+
+    public static Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    public static Level setLevel(Level level) {
+        Level previous = getLevel();
+        threshold = level.ordinal();
+        return previous;
+    }
+
+    public static Level raiseLevel(Level level) {
+        Level previous = getLevel();
+        threshold = Math.max(threshold, level.ordinal());
+        return previous;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public static void capture(StringBuilder messages) {
+        CAPTURE.set(messages);
+    }
+
+    public static void release() {
+        CAPTURE.remove();
+    }
+
+    public static void info(String template) {
+        log(Level.INFO, template, 0, null, null, null, null);
+    }
+
+    public static void info(String template, Object first) {
+        log(Level.INFO, template, 1, first, null, null, null);
+    }
+
+    public static void info(String template, Object first, Object second) {
+        log(Level.INFO, template, 2, first, second, null, null);
+    }
+
+    public static void info(String template, Object first, Object second, Object third) {
+        log(Level.INFO, template, 3, first, second, third, null);
+    }
+
+    public static void warn(String template, Object first) {
+        log(Level.WARN, template, 1, first, null, null, null);
+    }
+
+    public static void error(String template) {
+        log(Level.ERROR, template, 0, null, null, null, null);
+    }
+
+    public static void error(String template, Object first) {
+        log(Level.ERROR, template, 1, first, null, null, null);
+    }
+
+    public static void error(String template, Object first, Object second) {
+        log(Level.ERROR, template, 2, first, second, null, null);
+    }
+
+    private static void log(Level level, String template, int count, Object first, Object second, Object third, Object fourth) {
+        if (level.ordinal() < threshold) {
+            return;
+        }
+
+        StringBuilder messages = CAPTURE.get();
+        if (messages != null) {
+            Event.render(messages, template, count, first, second, third, fourth);
+            messages.append('\n');
+            return;
+        }
+
+        long position = claim();
+        Event event = RING[(int) (position & MASK)];
+        event.time = System.currentTimeMillis();
+        event.level = level;
+        event.template = template;
+        event.count = count;
+        event.arguments[0] = first;
+        event.arguments[1] = second;
+        event.arguments[2] = third;
+        event.arguments[3] = fourth;
+        SEQUENCES.set((int) (position & MASK), position + 1);
+        if (!draining) {
+            LockSupport.unpark(DRAINER);
+        }
+    }
+
+    private static long claim() {
+        while (true) {
+            long position = TAIL.get();
+            long sequence = SEQUENCES.get((int) (position & MASK));
+            if (sequence == position) {
+                if (TAIL.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (sequence < position) {
+                LockSupport.unpark(DRAINER);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public static void flush() {
+        long target = TAIL.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (head < target && DRAINER.isAlive() && Thread.currentThread() != DRAINER && System.nanoTime() < deadline) {
+            LockSupport.unpark(DRAINER);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        flushEventFile();
+        System.out.flush();
+    }
+
+    private static void drainLoop() {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            draining = true;
+            long position = head;
+            int slot = (int) (position & MASK);
+            if (SEQUENCES.get(slot) != position + 1) {
+                draining = false;
+                if (SEQUENCES.get(slot) != position + 1) {
+                    flushEventFile();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                continue;
+            }
+
+            Event event = RING[slot];
+            line.setLength(0);
+            Event.render(line, event.template, event.count, event.arguments[0], event.arguments[1], event.arguments[2], event.arguments[3]);
+            String message = line.toString();
+            try {
+                System.out.println(message);
+                if (eventFile != null) {
+                    writeEvent(event, message);
+                }
+            } catch (RuntimeException | IOException e) {
+                System.err.println("Error occurred while writing log event: " + e);
+            }
+            event.clear();
+            SEQUENCES.set(slot, position + CAPACITY);
+            head = position + 1;
+        }
+    }
+
+    private static void writeEvent(Event event, String message) throws IOException {
+        JsonWriter json = new JsonWriter(eventFile);
+        json.beginObject()
+                .field("time", event.time)
+                .field("level", event.level.name())
+                .field("event", event.template)
+                .name("arguments").beginArray();
+        for (int i = 0; i < event.count; i++) {
+            json.value(String.valueOf(event.arguments[i]));
+        }
+        json.endArray().field("message", message).endObject();
+        eventFile.write('\n');
+    }
+
+    private static void flushEventFile() {
+        if (eventFile == null) {
+            return;
+        }
+        try {
+            eventFile.flush();
+        } catch (IOException e) {
+            System.err.println("Error occurred while writing log file: " + e.getMessage());
+        }
+    }
+
+    private static class Event {
+        private long time;
+        private Level level;
+        private String template;
+        private int count;
+        private Object[] arguments = new Object[MAX_ARGUMENTS];
+
+        void clear() {
+            template = null;
+            for (int i = 0; i < MAX_ARGUMENTS; i++) {
+                arguments[i] = null;
+            }
+        }
+
+        static void render(StringBuilder out, String template, int count, Object first, Object second, Object third, Object fourth) {
+            int start = 0;
+            for (int argument = 0; argument < count; argument++) {
+                int placeholder = template.indexOf("{}", start);
+                if (placeholder < 0) {
+                    break;
+                }
+                out.append(template, start, placeholder);
+                out.append(argument == 0 ? first : argument == 1 ? second : argument == 2 ? third : fourth);
+                start = placeholder + 2;
+            }
+            out.append(template, start, template.length());
+        }
+    }
+}
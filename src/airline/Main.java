@@ -0,0 +1,954 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.NavigableSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+public class Main {
+
+    private static final String FILE_NAME = "data.txt";
+    private static final String BINARY_FILE_NAME = "data.bin";
+    private static final String SNAPSHOT_FILE_NAME = "binary".equals(System.getProperty("airline.snapshot")) ? BINARY_FILE_NAME : FILE_NAME;
+    private static final String JOURNAL_FILE_NAME = "data.journal";
+    private static final long COMPACTION_THRESHOLD = Long.getLong("airline.journal.compaction", 10000);
+    private static final int PAGE_SIZE = 20;
+    static final int SNAPSHOT_FORMAT = 1;
+    private static final int LEGACY_FORMAT = 0;
+    private static final int BATCH_SIZE = Integer.getInteger("airline.batch.size", 10000);
+    private static final int DEFAULT_PORT = 8080;
+    private static final String LOAD_FAILED = "Error: Data could not be loaded. Nothing was saved; fix or restore " + SNAPSHOT_FILE_NAME + " and start again.";
+    private static final int TOP_ROUTES = 10;
+
+    public static void main(String[] args) {
+        if (args.length == 3 && args[0].equals("--convert")) {
+            convertSnapshot(args[1], args[2]);
+            return;
+        }
+        if (args.length == 2 && args[0].equals("--roundtrip")) {
+            verifyRoundTrip(Integer.parseInt(args[1]));
+            return;
+        }
+
+        Scanner scanner = new Scanner(System.in);
+        Metrics.register();
+
+        Journal journal;
+        try {
+            journal = new Journal(JOURNAL_FILE_NAME, COMPACTION_THRESHOLD);
+        } catch (IOException e) {
+            System.out.println("Error occurred while opening journal: " + e.getMessage());
+            return;
+        }
+
+        Airport airport = new Airport();
+        Airplane airplane = new Airplane(airport);
+        Route route = new Route(airport, airplane);
+        Flight flight = new Flight(route);
+        BookingEngine bookingEngine = new BookingEngine(airplane, route, flight);
+        ClientRegistry clients = new ClientRegistry(bookingEngine);
+        ConnectionSearch connectionSearch = new ConnectionSearch(flight, bookingEngine);
+        FleetAssigner fleetAssigner = new FleetAssigner(airplane, route, flight);
+        RotationChecker rotationChecker = new RotationChecker(airport, flight);
+        FareEngine fareEngine = new FareEngine(airplane, route, flight, bookingEngine);
+        Statistics statistics = new Statistics(airplane, flight, bookingEngine);
+        airport.setJournal(journal);
+        airplane.setJournal(journal);
+        route.setJournal(journal);
+        flight.setJournal(journal);
+        bookingEngine.setJournal(journal);
+        clients.setJournal(journal);
+
+        if ((new File(SNAPSHOT_FILE_NAME).exists() || new File(JOURNAL_FILE_NAME).exists())
+                && !loadData(airport, airplane, route, flight, clients, bookingEngine, journal)) {
+            Log.flush();
+            System.out.println(LOAD_FAILED);
+            journal.close();
+            return;
+        }
+
+        if (args.length == 1 && args[0].equals("--check-rotations")) {
+            printRotationReport(rotationChecker.validate());
+            journal.close();
+            return;
+        }
+
+        if (args.length >= 2 && args[0].equals("--export")) {
+            Exporter.Format format = Exporter.Format.parse(args.length > 2 ? args[2] : "csv");
+            if (format == null) {
+                System.out.println("Error: Unknown export format " + args[2] + ".");
+            } else {
+                exportData(new Exporter(airport, airplane, route, flight, clients, bookingEngine), Paths.get(args[1]), format);
+            }
+            journal.close();
+            return;
+        }
+
+        if (args.length == 2 && args[0].equals("--batch")) {
+            BatchProcessor batchProcessor = new BatchProcessor(airport, airplane, route, flight, clients, bookingEngine, journal, BATCH_SIZE);
+            try (BufferedReader reader = args[1].equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                    : Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                batchProcessor.run(reader);
+            } catch (IOException e) {
+                System.out.println("Error occurred while reading batch: " + e.getMessage());
+            }
+            journal.sync();
+            journal.close();
+            Metrics.export();
+            return;
+        }
+
+        if (args.length >= 1 && args[0].equals("--serve")) {
+            ApiServer apiServer = new ApiServer(airport, airplane, route, flight, clients, bookingEngine, connectionSearch, fareEngine, journal);
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+            try {
+                apiServer.start(port);
+            } catch (IOException e) {
+                System.out.println("Error occurred while starting server: " + e.getMessage());
+                journal.close();
+                return;
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                apiServer.stop();
+                journal.sync();
+                journal.close();
+                Metrics.export();
+            }));
+            System.out.println("Listening on port " + port + ".");
+            return;
+        }
+
+        int choice = 0;
+        while (choice != 18) {
+            Log.flush();
+            System.out.println("██████╗░███████╗██╗░░░░░░█████╗░██╗░░░██╗██╗░█████╗░\n" +
+                    "██╔══██╗██╔════╝██║░░░░░██╔══██╗██║░░░██║██║██╔══██╗\n" +
+                    "██████╦╝█████╗░░██║░░░░░███████║╚██╗░██╔╝██║███████║\n" +
+                    "██╔══██╗██╔══╝░░██║░░░░░██╔══██║░╚████╔╝░██║██╔══██║\n" +
+                    "██████╦╝███████╗███████╗██║░░██║░░╚██╔╝░░██║██║░░██║\n" +
+                    "╚═════╝░╚══════╝╚══════╝╚═╝░░╚═╝░░░╚═╝░░░╚═╝╚═╝░░╚═╝\n");
+            System.out.println("▒█▀▄▀█ ▒█▀▀▀ ▒█▄░▒█ ▒█░▒█ \n" +
+                    "▒█▒█▒█ ▒█▀▀▀ ▒█▒█▒█ ▒█░▒█ \n" +
+                    "▒█░░▒█ ▒█▄▄▄ ▒█░░▀█ ░▀▄▄▀\n");
+            System.out.println("AIRPORT: 1-create, 2-delete, 3-view");
+            System.out.println("ROUTE: 4-create, 5-delete, 6-view, 19-find itinerary, 23-assign fleet");
+            System.out.println("FLIGHT: 7-create, 8-view, 20-find connection, 21-set connection time, 22-departures, 24-check rotations");
+            System.out.println("CLIENT: 9-create, 10-delete, 11-view");
+            System.out.println("AIRPLANE: 12-create, 13-delete, 14-view");
+            System.out.println("DATA: 15-save, 16-load, 25-export, 26-statistics");
+            System.out.println("BUY TICKET: 17");
+            System.out.println("EXIT: 18");
+            System.out.print("\nEnter your choice: ");
+            choice = scanner.nextInt();
+            scanner.nextLine();
+
+            switch (choice) {
+                case 1:
+                    System.out.print("Enter airport: ");
+                    String airportName = scanner.nextLine();
+                    airport.createAirport(airportName);
+                    break;
+                case 2:
+                    System.out.print("Enter airport: ");
+                    String airportToDelete = scanner.nextLine();
+                    airport.deleteAirport(airportToDelete);
+                    break;
+                case 3:
+                    airport.viewAirports();
+                    break;
+                case 4:
+                    System.out.print("Enter departure airport: ");
+                    String departureAirport = scanner.nextLine();
+
+                    System.out.print("Enter arrival airport: ");
+                    String arrivalAirport = scanner.nextLine();
+
+                    System.out.print("Enter distance (in km) between departure and arrival airports: ");
+                    int distance = scanner.nextInt();
+                    scanner.nextLine();
+
+                    List<Airplane.AirplaneDetails> routeAirplanes = new ArrayList<>(airplane.getAirplanesAt(departureAirport));
+                    if (routeAirplanes.isEmpty()) {
+                        System.out.println("Error: There are no airplanes available at the departure airport.");
+                        break;
+                    }
+
+                    System.out.println("Available airplanes at " + departureAirport + ":");
+                    for (int i = 0; i < routeAirplanes.size(); i++) {
+                        System.out.println((i + 1) + ". " + routeAirplanes.get(i));
+                    }
+
+                    System.out.print("Choose an airplane index: ");
+                    int selectedAirplaneIndex = scanner.nextInt();
+                    scanner.nextLine();
+
+                    if (selectedAirplaneIndex < 1 || selectedAirplaneIndex > routeAirplanes.size()) {
+                        System.out.println("Error: Invalid airplane index.");
+                        break;
+                    }
+
+                    route.createRoute(departureAirport, arrivalAirport, distance, routeAirplanes.get(selectedAirplaneIndex - 1).getName());
+                    break;
+                case 5:
+                    route.viewRoutes();
+                    System.out.print("Choose a route index to delete: ");
+                    int routeToDeleteIndex = scanner.nextInt();
+                    scanner.nextLine();
+                    route.deleteRoute(routeToDeleteIndex);
+                    break;
+                case 6:
+                    route.viewRoutes();
+                    break;
+                case 7:
+                    System.out.print("Enter flight: ");
+                    String flightName = scanner.nextLine();
+
+                    System.out.println("Available routes:");
+                    route.viewRoutes();
+                    System.out.print("Choose a route index: ");
+                    int selectedRouteIndex = scanner.nextInt();
+                    scanner.nextLine();
+
+                    String selectedRoute = route.getRoute(selectedRouteIndex);
+                    if (selectedRoute == null) {
+                        System.out.println("Error: Invalid route index.");
+                        break;
+                    }
+
+                    System.out.print("Enter departure time: ");
+                    String departureTime = scanner.nextLine();
+
+                    System.out.print("Enter departure date: ");
+                    String departureDate = scanner.nextLine();
+
+                    System.out.print("Enter arrival time: ");
+                    String arrivalTime = scanner.nextLine();
+
+                    System.out.print("Enter arrival date: ");
+                    String arrivalDate = scanner.nextLine();
+
+                    flight.createFlight(flightName, selectedRoute, departureTime, departureDate, arrivalTime, arrivalDate);
+                    break;
+                case 8:
+                    System.out.println("Available flights:");
+                    for (Flight.FlightDetails availableFlight : flight.getFlights()) {
+                        System.out.println(availableFlight);
+                    }
+                    System.out.print("Choose a flight number: ");
+                    int selectedFlightId8 = scanner.nextInt();
+                    scanner.nextLine();
+
+                    Flight.FlightDetails selectedFlight8 = flight.getFlightDetails(selectedFlightId8);
+                    if (selectedFlight8 != null) {
+                        System.out.println("Selected flight: " + selectedFlight8);
+                    } else {
+                        System.out.println("Invalid flight number.");
+                    }
+                    break;
+                case 9:
+                    System.out.print("Enter client name: ");
+                    String clientName = scanner.nextLine();
+
+                    System.out.print("Enter client phone: ");
+                    String clientPhone = scanner.nextLine();
+
+                    System.out.print("Is the client a company? (1-yes/2-no): ");
+                    String isCompanyInput = scanner.nextLine();
+                    boolean isCompany = isCompanyInput.equalsIgnoreCase("1");
+
+                    int airplaneCount = 0;
+                    if (isCompany) {
+                        System.out.print("Enter the number of airplanes for the company: ");
+                        airplaneCount = scanner.nextInt();
+                        scanner.nextLine();
+                    }
+
+                    clients.createClient(clientName, clientPhone, isCompany, airplaneCount);
+                    break;
+                case 10:
+                    System.out.println("Available clients:");
+                    for (Client existingClient : clients.getClients()) {
+                        System.out.println(existingClient.getId() + ". " + existingClient.getName());
+                    }
+                    System.out.print("Choose a client id to delete: ");
+                    int clientToDeleteId = scanner.nextInt();
+                    scanner.nextLine();
+                    clients.deleteClient(clientToDeleteId);
+                    break;
+                case 11:
+                    System.out.println("All Clients:");
+                    for (Client existingClient : clients.getClients()) {
+                        System.out.println(existingClient.getId() + ". " + existingClient);
+                        List<Ticket> clientTickets = existingClient.getTickets();
+                        if (!clientTickets.isEmpty()) {
+                            System.out.println("  Associated Tickets:");
+                            for (Ticket tickete : clientTickets) {
+                                System.out.println("    " + flight.getFlightDetails(tickete.getFlightId())
+                                        + " | Seat: " + tickete.getSeat() + " | Price: " + FareEngine.format(tickete.getPrice()));
+                            }
+                        } else {
+                            System.out.println("  No tickets associated.");
+                        }
+                    }
+                    break;
+                case 12:
+                    System.out.print("Enter airplane name: ");
+                    String airplaneName = scanner.nextLine();
+
+                    System.out.print("Enter seat count: ");
+                    int seatCount = scanner.nextInt();
+                    scanner.nextLine();
+
+                    System.out.print("Enter range: ");
+                    int range = scanner.nextInt();
+                    scanner.nextLine();
+
+                    System.out.print("Enter airport name to associate the airplane: ");
+                    String associatedAirportName = scanner.nextLine();
+
+                    airplane.createAirplane(airplaneName, seatCount, range, associatedAirportName);
+                    break;
+                case 13:
+                    System.out.print("Enter airplane: ");
+                    String airplaneToDelete = scanner.nextLine();
+                    airplane.deleteAirplane(airplaneToDelete);
+                    break;
+                case 14:
+                    airplane.viewAirplanes();
+                    break;
+                case 15:
+                    journal.sync();
+                    if (journal.needsCompaction()) {
+                        saveData(airport, airplane, route, flight, clients, bookingEngine, journal);
+                    } else {
+                        System.out.println("Data saved successfully.");
+                    }
+                    break;
+                case 16:
+                    if (!loadData(airport, airplane, route, flight, clients, bookingEngine, journal)) {
+                        Log.flush();
+                        System.out.println(LOAD_FAILED);
+                        journal.close();
+                        scanner.close();
+                        return;
+                    }
+                    break;
+                case 17:
+                    System.out.println("Available flights:");
+                    flight.viewFlights();
+                    System.out.print("Choose a flight number: ");
+                    int selectedFlightId = scanner.nextInt();
+                    scanner.nextLine();
+
+                    Flight.FlightDetails selectedFlight = flight.getFlightDetails(selectedFlightId);
+                    if (selectedFlight == null) {
+                        System.out.println("Error: Invalid flight number.");
+                        break;
+                    }
+                    System.out.println("Fares: " + fareEngine.quote(selectedFlight.getId()));
+
+                    System.out.println("Available clients:");
+                    for (Client existingClient : clients.getClients()) {
+                        System.out.println(existingClient.getId() + ". " + existingClient.getName());
+                    }
+                    System.out.print("Choose a client id: ");
+                    int selectedClientId = scanner.nextInt();
+                    scanner.nextLine(); // Consume newline character
+
+                    Client selectedClient = clients.getClient(selectedClientId);
+                    if (selectedClient == null) {
+                        System.out.println("Error: Invalid client id.");
+                        break;
+                    }
+
+                    SeatMap selectedSeatMap = bookingEngine.getSeatMap(selectedFlight.getId());
+                    for (String seatRow : selectedSeatMap.getRows()) {
+                        System.out.println(seatRow);
+                    }
+                    System.out.print("Enter seat (empty for any): ");
+                    String selectedSeat = scanner.nextLine().trim().toUpperCase();
+
+                    bookingEngine.book(selectedFlight.getId(), selectedClient, selectedSeat.isEmpty() ? null : selectedSeat);
+                    break;
+                case 18:
+                    System.out.println("Exiting program...");
+                    Metrics.export();
+                    break;
+                case 19:
+                    System.out.print("Enter departure airport: ");
+                    String itineraryFrom = scanner.nextLine();
+
+                    System.out.print("Enter arrival airport: ");
+                    String itineraryTo = scanner.nextLine();
+
+                    System.out.print("Enter number of itineraries: ");
+                    int itineraryCount = scanner.nextInt();
+                    scanner.nextLine();
+
+                    List<RouteGraph.Itinerary> itineraries = route.getRouteGraph().kShortestItineraries(itineraryFrom, itineraryTo, itineraryCount);
+                    if (itineraries.isEmpty()) {
+                        System.out.println("No itinerary found.");
+                        break;
+                    }
+                    System.out.println("Itineraries:");
+                    for (int i = 0; i < itineraries.size(); i++) {
+                        System.out.println((i + 1) + ". " + itineraries.get(i));
+                    }
+                    break;
+                case 20:
+                    System.out.print("Enter departure airport: ");
+                    String connectionFrom = scanner.nextLine();
+
+                    System.out.print("Enter arrival airport: ");
+                    String connectionTo = scanner.nextLine();
+
+                    System.out.print("Enter earliest departure time: ");
+                    String connectionTime = scanner.nextLine();
+
+                    System.out.print("Enter earliest departure date: ");
+                    String connectionDate = scanner.nextLine();
+
+                    System.out.print("Enter number of seats: ");
+                    int connectionSeats = scanner.nextInt();
+                    scanner.nextLine();
+
+                    LocalDateTime connectionAfter;
+                    try {
+                        connectionAfter = LocalDateTime.parse(connectionTime + " " + connectionDate, Flight.DATE_TIME_FORMAT);
+                    } catch (DateTimeParseException e) {
+                        System.out.println("Error: Invalid date or time format (expected HH:mm and dd.MM.yyyy).");
+                        break;
+                    }
+
+                    ConnectionSearch.Journey earliest = connectionSearch.earliestArrival(connectionFrom, connectionTo, connectionAfter, connectionSeats);
+                    if (earliest == null) {
+                        System.out.println("No connection found.");
+                        break;
+                    }
+                    printJourney("Earliest arrival: ", earliest);
+                    ConnectionSearch.Journey direct = connectionSearch.fewestTransfers(connectionFrom, connectionTo, connectionAfter, connectionSeats);
+                    if (direct != null && direct.getTransfers() < earliest.getTransfers()) {
+                        printJourney("Fewest transfers: ", direct);
+                    }
+                    break;
+                case 21:
+                    System.out.print("Enter airport: ");
+                    String connectionAirport = scanner.nextLine();
+
+                    System.out.print("Enter minimum connection time (in minutes): ");
+                    int connectionMinutes = scanner.nextInt();
+                    scanner.nextLine();
+
+                    if (!airport.existsAirport(connectionAirport)) {
+                        System.out.println("Error: Airport not found.");
+                        break;
+                    }
+                    connectionSearch.setMinimumConnectionTime(connectionAirport, connectionMinutes);
+                    break;
+                case 22:
+                    System.out.print("Enter departure airport: ");
+                    String departuresAirport = scanner.nextLine();
+
+                    System.out.print("Enter departure date: ");
+                    String departuresDate = scanner.nextLine();
+
+                    NavigableSet<Flight.FlightDetails> departures;
+                    try {
+                        departures = flight.getDepartures(departuresAirport, LocalDate.parse(departuresDate, Flight.DATE_FORMAT));
+                    } catch (DateTimeParseException e) {
+                        System.out.println("Error: Invalid date format (expected dd.MM.yyyy).");
+                        break;
+                    }
+
+                    System.out.println("Departures from " + departuresAirport + " on " + departuresDate + " (" + departures.size() + "):");
+                    List<Flight.FlightDetails> departuresPage = flight.page(departures, null, PAGE_SIZE);
+                    while (!departuresPage.isEmpty()) {
+                        for (Flight.FlightDetails departure : departuresPage) {
+                            System.out.println(departure);
+                        }
+                        if (departuresPage.size() < PAGE_SIZE) {
+                            break;
+                        }
+                        System.out.print("Show more? (1-yes/2-no): ");
+                        if (!scanner.nextLine().equals("1")) {
+                            break;
+                        }
+                        departuresPage = flight.page(departures, departuresPage.get(departuresPage.size() - 1), PAGE_SIZE);
+                    }
+                    break;
+                case 23:
+                    FleetAssigner.Plan plan = fleetAssigner.plan();
+                    int reassigned = fleetAssigner.apply(plan);
+                    Log.flush();
+                    System.out.println("Fleet assigned: " + plan.getAssignments().size() + " routes covered, " + reassigned + " reassigned.");
+                    for (String unassignedRoute : plan.getUnassigned()) {
+                        String kept = route.getAirplane(unassignedRoute);
+                        System.out.println("  No free airplane with enough range and seats for " + unassignedRoute
+                                + (kept != null ? ", keeping " + kept + "." : ", left without an airplane."));
+                    }
+                    break;
+                case 24:
+                    printRotationReport(rotationChecker.validate());
+                    break;
+                case 25:
+                    System.out.print("Enter export directory: ");
+                    String exportDirectory = scanner.nextLine().trim();
+                    System.out.print("Enter format (csv/jsonl): ");
+                    Exporter.Format exportFormat = Exporter.Format.parse(scanner.nextLine());
+                    if (exportFormat == null) {
+                        System.out.println("Error: Unknown export format.");
+                        break;
+                    }
+                    exportData(new Exporter(airport, airplane, route, flight, clients, bookingEngine), Paths.get(exportDirectory), exportFormat);
+                    break;
+                case 26:
+                    System.out.println("Tickets: " + statistics.getTotalTickets() + " | Revenue: " + FareEngine.format(statistics.getTotalRevenue()));
+                    System.out.println("Busiest routes:");
+                    for (Statistics.RouteTotal routeTotal : statistics.getTopRoutes(TOP_ROUTES)) {
+                        System.out.println("  " + routeTotal);
+                    }
+                    System.out.println("Departing passengers:");
+                    for (String statisticsAirport : airport.getAirports()) {
+                        System.out.println("  " + statisticsAirport + ": " + statistics.getDepartures(statisticsAirport));
+                    }
+                    break;
+                default:
+                    System.out.println("Invalid choice");
+            }
+            if (journal.needsCompaction()) {
+                saveData(airport, airplane, route, flight, clients, bookingEngine, journal);
+            }
+            System.out.println();
+        }
+        journal.sync();
+        journal.close();
+        scanner.close();
+    }
+    private static void printRotationReport(RotationChecker.Report report) {
+        System.out.println("Checked " + report.getFlights() + " flights on " + report.getAirplanes() + " airplanes: "
+                + report.count(RotationChecker.Kind.OVERLAP) + " overlapping, "
+                + report.count(RotationChecker.Kind.WRONG_AIRPORT) + " from the wrong airport, "
+                + report.count(RotationChecker.Kind.SHORT_TURNAROUND) + " short turnarounds, "
+                + report.count(RotationChecker.Kind.NOT_BASED) + " away from base.");
+        for (RotationChecker.Violation violation : report.getViolations()) {
+            System.out.println("  " + violation);
+        }
+    }
+
+    private static void exportData(Exporter exporter, Path directory, Exporter.Format format) {
+        try {
+            for (Map.Entry<Path, Long> exported : exporter.exportAll(directory, format).entrySet()) {
+                System.out.println("Exported " + exported.getValue() + " rows to " + exported.getKey() + ".");
+            }
+        } catch (IOException e) {
+            System.out.println("Error occurred while exporting data: " + e.getMessage());
+        }
+    }
+
+    private static void printJourney(String label, ConnectionSearch.Journey journey) {
+        System.out.println(label + journey);
+        for (Flight.FlightDetails leg : journey.getFlights()) {
+            System.out.println("  " + leg);
+        }
+    }
+
+    static void saveData(Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine, Journal journal) {
+        long started = Metrics.SAVE_DATA.start();
+        journal.sync();
+        long sequence = journal.getLastSequence();
+        String snapshotFileName = SNAPSHOT_FILE_NAME + ".tmp";
+        try {
+            writeSnapshot(snapshotFileName, airport, airplane, route, flight, clients, bookingEngine, sequence);
+            Files.move(Paths.get(snapshotFileName), Paths.get(SNAPSHOT_FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.error("Error occurred while saving data: {}", e.getMessage());
+            return;
+        }
+        journal.snapshotWritten(sequence);
+        Metrics.SAVE_DATA.stop(started);
+        Log.info("Data saved successfully.");
+    }
+
+    static void writeSnapshot(String fileName, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine, long sequence) throws IOException {
+        if (isBinarySnapshot(fileName)) {
+            BinarySnapshot.write(Paths.get(fileName), airport, airplane, route, flight, clients, bookingEngine, sequence);
+            return;
+        }
+
+        try (FileOutputStream output = new FileOutputStream(fileName);
+             PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)))) {
+            writer.println("Journal: " + sequence);
+            writer.println("Format: " + SNAPSHOT_FORMAT);
+            writer.println("Counts: airports=" + airport.getAirports().size() + " airplanes=" + airplane.getAirplanes().size()
+                    + " routes=" + route.getRoutes().size() + " flights=" + flight.getFlights().size()
+                    + " clients=" + clients.size() + " tickets=" + bookingEngine.getTickets().size());
+            writer.println("Airports:");
+            Set<String> airports = airport.getAirports();
+            for (String airportName : airports) {
+                writer.println(airportName);
+                for (Airplane.AirplaneDetails airplaneDetails : airplane.getAirplanesAt(airportName)) {
+                    writer.println("  " + airplaneDetails.getName());
+                    writer.println("  " + airplaneDetails.getSeatCount());
+                    writer.println("  " + airplaneDetails.getRange());
+                }
+            }
+
+            writer.println("Routes:");
+            List<String> routes = route.getRoutes();
+            for (String routeName : routes) {
+                writer.println(route.getDepartureAirport(routeName));
+                writer.println(route.getArrivalAirport(routeName));
+                writer.println(route.getDistance(routeName));
+                String routeAirplane = route.getAirplane(routeName);
+                writer.println(routeAirplane != null ? routeAirplane : "-");
+            }
+
+            writer.println("Flights:");
+            for (Flight.FlightDetails flightDetails : flight.getFlights()) {
+                writer.println(flightDetails.getId());
+                writer.println(flightDetails.getName());
+                writer.println(flightDetails.getRoute());
+                writer.println(flightDetails.getDeparture().format(Flight.DATE_TIME_FORMAT));
+                writer.println(flightDetails.getArrival().format(Flight.DATE_TIME_FORMAT));
+            }
+
+            writer.println("Clients:");
+            for (Client client : clients.getClients()) {
+                writer.println(client.getId());
+                writer.println(client.getName());
+                writer.println(client.getPhone());
+                writer.println(client.isCompany());
+                writer.println(client.getAirplaneCount());
+            }
+
+            writer.println("Tickets:");
+            for (Ticket ticket : bookingEngine.getTickets()) {
+                writer.println(ticket.getFlightId());
+                writer.println(ticket.getClient().getId());
+                writer.println(ticket.getSeat() != null ? ticket.getSeat() : "-");
+                writer.println(ticket.getPrice());
+                writer.println(ticket.getBookedAt());
+                writer.println(ticket.getNumber());
+            }
+
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("write failed");
+            }
+            output.getFD().sync();
+        }
+    }
+
+    private static boolean loadData(Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine, Journal journal) {
+        long started = Metrics.LOAD_DATA.start();
+        journal.sync();
+        journal.setRecording(false);
+        airport.clear();
+        airplane.clear();
+        route.clear();
+        flight.clear();
+        clients.clear();
+        bookingEngine.clear();
+
+        long snapshotSequence = 0;
+        if (new File(SNAPSHOT_FILE_NAME).exists()) {
+            try {
+                snapshotSequence = readSnapshot(SNAPSHOT_FILE_NAME, airport, airplane, route, flight, clients, bookingEngine);
+            } catch (IOException | RuntimeException e) {
+                Log.error("Error occurred while loading data: {}", e.getMessage());
+                return false;
+            }
+        }
+        journal.advanceTo(snapshotSequence);
+
+        Log.Level level = Log.raiseLevel(Log.Level.ERROR);
+        int replayed = journal.replay(snapshotSequence, record -> applyJournalRecord(record, airport, airplane, route, flight, clients, bookingEngine));
+        Log.setLevel(level);
+        journal.setRecording(true);
+        if (replayed > 0) {
+            Log.info("Recovered {} changes from the journal.", replayed);
+        }
+        Metrics.LOAD_DATA.stop(started);
+        Log.info("Data loaded successfully.");
+        return true;
+    }
+
+    static long readSnapshot(String fileName, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) throws IOException {
+        if (isBinarySnapshot(fileName)) {
+            return BinarySnapshot.read(Paths.get(fileName), airport, airplane, route, flight, clients, bookingEngine);
+        }
+        if (Files.size(Paths.get(fileName)) >= SnapshotLoader.MIN_PARALLEL_BYTES && !isLegacySnapshot(fileName)) {
+            return SnapshotLoader.read(Paths.get(fileName), airport, airplane, route, flight, clients, bookingEngine);
+        }
+
+        long snapshotSequence = 0;
+        int format = LEGACY_FORMAT;
+        Map<String, Integer> legacyFlights = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            String section = "";
+            String airportName = null;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Journal:")) {
+                    snapshotSequence = Long.parseLong(line.substring("Journal:".length()).trim());
+                } else if (line.startsWith("Format:")) {
+                    format = Integer.parseInt(line.substring("Format:".length()).trim());
+                    if (format != SNAPSHOT_FORMAT) {
+                        throw new IOException("Unsupported snapshot format " + format + ".");
+                    }
+                } else if (line.startsWith("Counts:")) {
+                    prepareBulkLoad(line.substring("Counts:".length()).trim(), airport, airplane, route, flight, clients, bookingEngine);
+                } else if (line.startsWith("Airports:")) {
+                    section = "Airports";
+                } else if (line.startsWith("Routes:")) {
+                    section = "Routes";
+                } else if (line.startsWith("Flights:")) {
+                    section = "Flights";
+                } else if (line.startsWith("Clients:")) {
+                    section = "Clients";
+                } else if (line.startsWith("Tickets:")) {
+                    section = "Tickets";
+                } else {
+                    switch (section) {
+                        case "Airports":
+                            if (line.startsWith("  ")) {
+                                String airplaneName = line.trim();
+                                int seatCount = format > LEGACY_FORMAT ? Integer.parseInt(reader.readLine().trim()) : 0;
+                                int range = format > LEGACY_FORMAT ? Integer.parseInt(reader.readLine().trim()) : 0;
+                                airplane.loadAirplane(airplaneName, seatCount, range, airportName);
+                            } else {
+                                airportName = line.trim();
+                                airport.loadAirport(airportName);
+                            }
+                            break;
+                        case "Routes":
+                            if (format == LEGACY_FORMAT) {
+                                String[] airports = line.trim().split(" - ", 2);
+                                route.loadRoute(airports[0], airports[1], Integer.parseInt(reader.readLine().trim()), null);
+                                break;
+                            }
+                            String departureAirport = line.trim();
+                            String arrivalAirport = reader.readLine().trim();
+                            int distance = Integer.parseInt(reader.readLine().trim());
+                            String routeAirplane = reader.readLine().trim();
+                            route.loadRoute(departureAirport, arrivalAirport, distance, routeAirplane.equals("-") ? null : routeAirplane);
+                            break;
+                        case "Flights":
+                            if (format == LEGACY_FORMAT) {
+                                loadLegacyFlight(line.trim(), flight, legacyFlights);
+                                break;
+                            }
+                            int flightId = Integer.parseInt(line.trim());
+                            String flightName = reader.readLine().trim();
+                            String flightRoute = reader.readLine().trim();
+                            LocalDateTime departure = LocalDateTime.parse(reader.readLine().trim(), Flight.DATE_TIME_FORMAT);
+                            LocalDateTime arrival = LocalDateTime.parse(reader.readLine().trim(), Flight.DATE_TIME_FORMAT);
+                            flight.loadFlight(flightId, flightName, flightRoute, departure, arrival);
+                            break;
+                        case "Clients":
+                            if (format == LEGACY_FORMAT) {
+                                clients.loadClient(line.trim(), reader.readLine().trim(), Boolean.parseBoolean(reader.readLine().trim()),
+                                        Integer.parseInt(reader.readLine().trim()));
+                                break;
+                            }
+                            int clientId = Integer.parseInt(line.trim());
+                            String name = reader.readLine().trim();
+                            String phone = reader.readLine().trim();
+                            boolean isCompany = Boolean.parseBoolean(reader.readLine().trim());
+                            int airplaneCount = Integer.parseInt(reader.readLine().trim());
+                            clients.loadClient(clientId, name, phone, isCompany, airplaneCount);
+                            break;
+                        case "Tickets":
+                            if (format == LEGACY_FORMAT) {
+                                Integer legacyFlightId = legacyFlights.get(line.trim());
+                                Client legacyClient = clients.findByName(reader.readLine().trim());
+                                if (legacyFlightId != null && legacyClient != null) {
+                                    bookingEngine.restoreTicket(legacyFlightId, legacyClient);
+                                }
+                                break;
+                            }
+                            int ticketFlightId = Integer.parseInt(line.trim());
+                            int ticketClientId = Integer.parseInt(reader.readLine().trim());
+                            String seat = reader.readLine().trim();
+                            long price = Long.parseLong(reader.readLine().trim());
+                            long bookedAt = Long.parseLong(reader.readLine().trim());
+                            long number = Long.parseLong(reader.readLine().trim());
+                            Client client = clients.getClient(ticketClientId);
+                            if (client != null && flight.getFlightDetails(ticketFlightId) != null) {
+                                bookingEngine.restoreTicket(number, ticketFlightId, client, seat.equals("-") ? null : seat, price, bookedAt);
+                            }
+                            break;
+                    }
+                }
+            }
+        }
+        return snapshotSequence;
+    }
+
+    private static void loadLegacyFlight(String line, Flight flight, Map<String, Integer> legacyFlights) {
+        String[] fields = line.split(" \\| ");
+        if (fields.length != 4 || !fields[1].startsWith("Route: ") || !fields[2].startsWith("Departure: ") || !fields[3].startsWith("Arrival: ")) {
+            Log.error("Error: Invalid flight record {}.", line);
+            return;
+        }
+        int flightId = flight.getFlights().size() + 1;
+        LocalDateTime departure = LocalDateTime.parse(fields[2].substring("Departure: ".length()), Flight.DATE_TIME_FORMAT);
+        LocalDateTime arrival = LocalDateTime.parse(fields[3].substring("Arrival: ".length()), Flight.DATE_TIME_FORMAT);
+        if (flight.loadFlight(flightId, fields[0], fields[1].substring("Route: ".length()), departure, arrival) != null) {
+            legacyFlights.putIfAbsent(line, flightId);
+        }
+    }
+
+    private static boolean isLegacySnapshot(String fileName) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            return line == null || !(line.startsWith("Journal:") || line.startsWith("Format:"));
+        }
+    }
+
+    static void prepareBulkLoad(String countsLine, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String count : countsLine.split(" ")) {
+            String[] entry = count.split("=");
+            counts.put(entry[0], Integer.parseInt(entry[1]));
+        }
+        airport.prepareBulkLoad(counts.getOrDefault("airports", 0));
+        airplane.prepareBulkLoad(counts.getOrDefault("airplanes", 0));
+        route.prepareBulkLoad(counts.getOrDefault("routes", 0));
+        flight.prepareBulkLoad(counts.getOrDefault("flights", 0));
+        bookingEngine.prepareBulkLoad(counts.getOrDefault("flights", 0));
+        clients.prepareBulkLoad(counts.getOrDefault("clients", 0));
+    }
+
+    private static void verifyRoundTrip(int ticketCount) {
+        Airport airport = new Airport();
+        Airplane airplane = new Airplane(airport);
+        Route route = new Route(airport, airplane);
+        Flight flight = new Flight(route);
+        BookingEngine bookingEngine = new BookingEngine(airplane, route, flight);
+        ClientRegistry clients = new ClientRegistry(bookingEngine);
+        DataGenerator.generate(ticketCount, 42, airport, airplane, route, flight, clients, bookingEngine);
+        System.out.println("Generated " + airport.getAirports().size() + " airports, " + route.getRoutes().size() + " routes, "
+                + flight.getFlights().size() + " flights, " + clients.size() + " clients, " + bookingEngine.getTickets().size() + " tickets.");
+
+        for (String extension : new String[]{".txt", ".bin"}) {
+            try {
+                Path original = Files.createTempFile("airline-roundtrip", extension);
+                Path copy = Files.createTempFile("airline-roundtrip-copy", extension);
+                writeSnapshot(original.toString(), airport, airplane, route, flight, clients, bookingEngine, 0);
+
+                Airport loadedAirport = new Airport();
+                Airplane loadedAirplane = new Airplane(loadedAirport);
+                Route loadedRoute = new Route(loadedAirport, loadedAirplane);
+                Flight loadedFlight = new Flight(loadedRoute);
+                BookingEngine loadedBookingEngine = new BookingEngine(loadedAirplane, loadedRoute, loadedFlight);
+                ClientRegistry loadedClients = new ClientRegistry(loadedBookingEngine);
+                long start = System.nanoTime();
+                readSnapshot(original.toString(), loadedAirport, loadedAirplane, loadedRoute, loadedFlight, loadedClients, loadedBookingEngine);
+                long loadMillis = (System.nanoTime() - start) / 1_000_000;
+                writeSnapshot(copy.toString(), loadedAirport, loadedAirplane, loadedRoute, loadedFlight, loadedClients, loadedBookingEngine, 0);
+
+                boolean identical = Files.mismatch(original, copy) == -1;
+                System.out.println((identical ? "Round trip OK (" : "Round trip FAILED (") + extension + ", " + Files.size(original) + " bytes, loaded in " + loadMillis + " ms).");
+                Files.delete(original);
+                Files.delete(copy);
+            } catch (IOException e) {
+                System.out.println("Error occurred during round trip: " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isBinarySnapshot(String fileName) {
+        return fileName.endsWith(".bin") || fileName.endsWith(".bin.tmp");
+    }
+
+    private static void convertSnapshot(String sourceFileName, String targetFileName) {
+        Airport airport = new Airport();
+        Airplane airplane = new Airplane(airport);
+        Route route = new Route(airport, airplane);
+        Flight flight = new Flight(route);
+        BookingEngine bookingEngine = new BookingEngine(airplane, route, flight);
+        ClientRegistry clients = new ClientRegistry(bookingEngine);
+
+        try {
+            long sequence = readSnapshot(sourceFileName, airport, airplane, route, flight, clients, bookingEngine);
+            writeSnapshot(targetFileName, airport, airplane, route, flight, clients, bookingEngine, sequence);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error occurred while converting data: " + e.getMessage());
+            return;
+        }
+        System.out.println("Converted " + sourceFileName + " to " + targetFileName + ".");
+    }
+
+    private static void applyJournalRecord(String[] record, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) {
+        switch (record[0]) {
+            case Journal.CREATE_AIRPORT:
+                airport.createAirport(record[1]);
+                break;
+            case Journal.DELETE_AIRPORT:
+                airport.deleteAirport(record[1]);
+                break;
+            case Journal.CREATE_AIRPLANE:
+                airplane.createAirplane(record[1], Integer.parseInt(record[2]), Integer.parseInt(record[3]), record[4]);
+                break;
+            case Journal.DELETE_AIRPLANE:
+                airplane.deleteAirplane(record[1]);
+                break;
+            case Journal.CREATE_ROUTE:
+                route.createRoute(record[1], record[2], Integer.parseInt(record[3]), record[4]);
+                break;
+            case Journal.DELETE_ROUTE:
+                route.deleteRoute(record[1]);
+                break;
+            case Journal.ASSIGN_AIRPLANE:
+                route.assignAirplane(record[1], record[2]);
+                break;
+            case Journal.RELEASE_AIRPLANE:
+                route.releaseAirplane(record[1]);
+                break;
+            case Journal.CREATE_FLIGHT:
+                flight.loadFlight(Integer.parseInt(record[1]), record[2], record[3],
+                        LocalDateTime.parse(record[4], Flight.DATE_TIME_FORMAT), LocalDateTime.parse(record[5], Flight.DATE_TIME_FORMAT));
+                break;
+            case Journal.DELETE_FLIGHT:
+                flight.deleteFlight(Integer.parseInt(record[1]));
+                break;
+            case Journal.CREATE_CLIENT:
+                clients.loadClient(Integer.parseInt(record[5]), record[1], record[2], Boolean.parseBoolean(record[3]), Integer.parseInt(record[4]));
+                break;
+            case Journal.DELETE_CLIENT:
+                clients.removeClient(Integer.parseInt(record[1]));
+                break;
+            case Journal.BOOK_TICKET:
+                Client client = clients.getClient(Integer.parseInt(record[2]));
+                if (client != null) {
+                    bookingEngine.restoreTicket(Long.parseLong(record[6]), Integer.parseInt(record[1]), client, record[3],
+                            Long.parseLong(record[4]), Long.parseLong(record[5]));
+                }
+                break;
+            default:
+                System.out.println("Error: Unknown journal record " + record[0] + ".");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,333 @@
+package airline;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+class Metrics {
+    static final boolean ENABLED = !"false".equals(System.getProperty("airline.metrics"));
+
+    private static final String FILE_NAME = System.getProperty("airline.metrics.file");
+    private static final long EXPORT_INTERVAL_SECONDS = Long.getLong("airline.metrics.interval", 15);
+    private static final String OBJECT_NAME = "airline:type=Metrics";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final List<Timer> TIMERS = new ArrayList<>();
+
+    static final Timer CREATE_AIRPORT = timer("airport_create");
+    static final Timer DELETE_AIRPORT = timer("airport_delete");
+    static final Timer CREATE_AIRPLANE = timer("airplane_create");
+    static final Timer DELETE_AIRPLANE = timer("airplane_delete");
+    static final Timer CREATE_ROUTE = timer("route_create");
+    static final Timer DELETE_ROUTE = timer("route_delete");
+    static final Timer CREATE_FLIGHT = timer("flight_create");
+    static final Timer DELETE_FLIGHT = timer("flight_delete");
+    static final Timer CREATE_CLIENT = timer("client_create");
+    static final Timer DELETE_CLIENT = timer("client_delete");
+    static final Timer BOOK_TICKET = timer("ticket_book");
+    static final Timer SAVE_DATA = timer("data_save");
+    static final Timer LOAD_DATA = timer("data_load");
+    static final Timer ROUTE_SEARCH = timer("route_search");
+    static final Timer CONNECTION_SEARCH = timer("connection_search");
+
+    private static ScheduledExecutorService exporter;
+
+    private Metrics() {
+    }
+
+    private static Timer timer(String name) {
+        Timer timer = new Timer(name);
+        TIMERS.add(timer);
+        return timer;
+    }
+
+    public static synchronized void register() {
+        if (!ENABLED || exporter != null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            Log.error("Error occurred while registering metrics MBean: {}", e.getMessage());
+        }
+        if (FILE_NAME != null) {
+            exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-export");
+                thread.setDaemon(true);
+                return thread;
+            });
+            exporter.scheduleAtFixedRate(Metrics::export, EXPORT_INTERVAL_SECONDS, EXPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    public static void export() {
+        if (!ENABLED || FILE_NAME == null) {
+            return;
+        }
+        try {
+            writePrometheus(Paths.get(FILE_NAME));
+        } catch (IOException e) {
+            Log.error("Error occurred while writing metrics: {}", e.getMessage());
+        }
+    }
+
+    public static void writePrometheus(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writePrometheus(writer);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void writePrometheus(Appendable out) throws IOException {
+        out.append("# HELP airline_operations_total Operations started, including rejected ones.\n");
+        out.append("# TYPE airline_operations_total counter\n");
+        for (Timer timer : TIMERS) {
+            out.append("airline_operations_total{operation=\"").append(timer.name).append("\"} ")
+                    .append(Long.toString(timer.calls.sum())).append('\n');
+        }
+
+        out.append("# HELP airline_operation_duration_seconds Latency of completed operations.\n");
+        out.append("# TYPE airline_operation_duration_seconds summary\n");
+        for (Timer timer : TIMERS) {
+            Snapshot snapshot = timer.snapshot();
+            for (double quantile : QUANTILES) {
+                out.append("airline_operation_duration_seconds{operation=\"").append(timer.name)
+                        .append("\",quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                        .append(seconds(snapshot.quantile(quantile))).append('\n');
+            }
+            out.append("airline_operation_duration_seconds_sum{operation=\"").append(timer.name).append("\"} ")
+                    .append(seconds(snapshot.sum)).append('\n');
+            out.append("airline_operation_duration_seconds_count{operation=\"").append(timer.name).append("\"} ")
+                    .append(Long.toString(snapshot.count)).append('\n');
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    static class Timer {
+        private String name;
+        private LongAdder calls;
+        private LongAdder completed;
+        private LongAdder totalNanos;
+        private Histogram histogram;
+
+        private Timer(String name) {
+            this.name = name;
+            calls = new LongAdder();
+            completed = new LongAdder();
+            totalNanos = new LongAdder();
+            histogram = new Histogram();
+        }
+
+        public long start() {
+            if (!ENABLED) {
+                return 0;
+            }
+            calls.increment();
+            return System.nanoTime();
+        }
+
+        public void stop(long started) {
+            if (!ENABLED) {
+                return;
+            }
+            long nanos = System.nanoTime() - started;
+            completed.increment();
+            totalNanos.add(nanos);
+            histogram.record(nanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getCompleted() {
+            return completed.sum();
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(histogram, totalNanos.sum());
+        }
+    }
+
+    static class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_EXPONENT = 44;
+        private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+        private AtomicLongArray counts;
+
+        Histogram() {
+            counts = new AtomicLongArray(BUCKETS);
+        }
+
+        void record(long value) {
+            counts.getAndIncrement(index(Math.max(0, value)));
+        }
+
+        static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            int index = (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+            return Math.min(index, BUCKETS - 1);
+        }
+
+        static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int shift = index / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+    }
+
+    static class Snapshot {
+        private long[] counts;
+        private long count;
+        private long sum;
+        private long max;
+
+        Snapshot(Histogram histogram, long sum) {
+            this.sum = sum;
+            counts = new long[Histogram.BUCKETS];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = histogram.counts.get(i);
+                count += counts[i];
+                if (counts[i] > 0) {
+                    max = Histogram.upperBound(i);
+                }
+            }
+        }
+
+        long quantile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Histogram.upperBound(i);
+                }
+            }
+            return max;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getMax() {
+            return max;
+        }
+
+        double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+    }
+
+    private static class Bean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public Map<String, Long> getCalls() {
+            Map<String, Long> calls = new LinkedHashMap<>();
+            for (Timer timer : TIMERS) {
+                calls.put(timer.name, timer.getCalls());
+            }
+            return calls;
+        }
+
+        @Override
+        public Map<String, Long> getCompleted() {
+            Map<String, Long> completed = new LinkedHashMap<>();
+            for (Timer timer : TIMERS) {
+                completed.put(timer.name, timer.getCompleted());
+            }
+            return completed;
+        }
+
+        @Override
+        public Map<String, Double> getMeanMillis() {
+            Map<String, Double> means = new LinkedHashMap<>();
+            for (Timer timer : TIMERS) {
+                means.put(timer.name, timer.snapshot().getMean() / 1e6);
+            }
+            return means;
+        }
+
+        @Override
+        public Map<String, Double> getP50Millis() {
+            return quantileMillis(0.5);
+        }
+
+        @Override
+        public Map<String, Double> getP99Millis() {
+            return quantileMillis(0.99);
+        }
+
+        @Override
+        public Map<String, Double> getMaxMillis() {
+            Map<String, Double> maxima = new LinkedHashMap<>();
+            for (Timer timer : TIMERS) {
+                maxima.put(timer.name, timer.snapshot().getMax() / 1e6);
+            }
+            return maxima;
+        }
+
+        @Override
+        public String getPrometheusText() {
+            StringBuilder text = new StringBuilder();
+            try {
+                writePrometheus(text);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return text.toString();
+        }
+
+        @Override
+        public void writePrometheusFile(String fileName) throws IOException {
+            writePrometheus(Paths.get(fileName));
+        }
+
+        private Map<String, Double> quantileMillis(double quantile) {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (Timer timer : TIMERS) {
+                values.put(timer.name, timer.snapshot().quantile(quantile) / 1e6);
+            }
+            return values;
+        }
+    }
+}
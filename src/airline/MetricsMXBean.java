@@ -0,0 +1,24 @@
+package airline;
+
+import java.io.IOException;
+import java.util.Map;
+
+public interface MetricsMXBean {
+    boolean isEnabled();
+
+    Map<String, Long> getCalls();
+
+    Map<String, Long> getCompleted();
+
+    Map<String, Double> getMeanMillis();
+
+    Map<String, Double> getP50Millis();
+
+    Map<String, Double> getP99Millis();
+
+    Map<String, Double> getMaxMillis();
+
+    String getPrometheusText();
+
+    void writePrometheusFile(String fileName) throws IOException;
+}
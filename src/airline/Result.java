@@ -0,0 +1,5 @@
+package airline;
+
+enum Result {
+    OK, NOT_FOUND, CONFLICT
+}
@@ -0,0 +1,435 @@
+package airline;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+class RotationChecker {
+    enum Kind {
+        OVERLAP, WRONG_AIRPORT, SHORT_TURNAROUND, NOT_BASED
+    }
+
+    private static final long MINIMUM_TURNAROUND_SECONDS = Long.getLong("airline.rotation.turnaround", 30) * 60;
+    private static final int SEQUENTIAL_THRESHOLD = 8;
+
+    private Airport airport;
+    private Flight flight;
+    private Map<String, Schedule> schedules;
+
+    public RotationChecker(Airport airport, Flight flight) {
+        this.airport = airport;
+        this.flight = flight;
+        schedules = new ConcurrentHashMap<>();
+        for (Flight.FlightDetails flightDetails : flight.getFlights()) {
+            add(flightDetails);
+        }
+        flight.setRotationChecker(this);
+    }
+
+    void add(Flight.FlightDetails flightDetails) {
+        if (flightDetails.getAirplane() != null) {
+            schedules.computeIfAbsent(flightDetails.getAirplane(), k -> new Schedule()).add(flightDetails);
+        }
+    }
+
+    void remove(Flight.FlightDetails flightDetails) {
+        Schedule schedule = flightDetails.getAirplane() != null ? schedules.get(flightDetails.getAirplane()) : null;
+        if (schedule != null && schedule.remove(flightDetails) && schedule.size() == 0) {
+            schedules.remove(flightDetails.getAirplane());
+        }
+    }
+
+    void clear() {
+        schedules.clear();
+    }
+
+    public Flight.FlightDetails findConflict(String airplaneName, LocalDateTime departure, LocalDateTime arrival) {
+        Schedule schedule = airplaneName != null ? schedules.get(airplaneName) : null;
+        return schedule != null ? schedule.findOverlap(seconds(departure), seconds(arrival)) : null;
+    }
+
+    public List<Violation> checkTurnaround(Flight.FlightDetails flightDetails) {
+        Schedule schedule = flightDetails.getAirplane() != null ? schedules.get(flightDetails.getAirplane()) : null;
+        if (schedule == null) {
+            return Collections.emptyList();
+        }
+
+        List<Violation> violations = new ArrayList<>(2);
+        Flight.FlightDetails previous = schedule.before(flightDetails);
+        if (previous == null) {
+            if (!isBasedAt(flightDetails.getAirplane(), flightDetails.getDepartureAirport())) {
+                violations.add(new Violation(Kind.NOT_BASED, flightDetails.getAirplane(), null, flightDetails));
+            }
+        } else {
+            addTurnaround(violations, previous, flightDetails);
+        }
+        Flight.FlightDetails next = schedule.after(flightDetails);
+        if (next != null) {
+            addTurnaround(violations, flightDetails, next);
+        }
+        return violations;
+    }
+
+    public Report validate() {
+        Map<String, String> bases = new HashMap<>();
+        for (String airportName : airport.getAirports()) {
+            Set<String> airplanes = airport.getAirplanes(airportName);
+            if (airplanes != null) {
+                for (String airplaneName : airplanes) {
+                    bases.put(airplaneName, airportName);
+                }
+            }
+        }
+
+        List<String> airplanes = new ArrayList<>(schedules.keySet());
+        Report report = new Report();
+        report.airplanes = airplanes.size();
+        for (List<Violation> violations : ForkJoinPool.commonPool().invoke(new ValidateTask(airplanes, bases, 0, airplanes.size()))) {
+            report.violations.addAll(violations);
+        }
+        for (Schedule schedule : schedules.values()) {
+            report.flights += schedule.size();
+        }
+        return report;
+    }
+
+    private List<Violation> validate(String airplaneName, Map<String, String> bases) {
+        List<Violation> violations = new ArrayList<>();
+        Schedule schedule = schedules.get(airplaneName);
+        if (schedule == null) {
+            return violations;
+        }
+
+        Flight.FlightDetails latest = null;
+        long latestArrival = Long.MIN_VALUE;
+        for (Flight.FlightDetails flightDetails : schedule.toList()) {
+            long departure = seconds(flightDetails.getDeparture());
+            if (latest == null) {
+                if (flightDetails.getDepartureAirport() != null && !flightDetails.getDepartureAirport().equals(bases.get(airplaneName))) {
+                    violations.add(new Violation(Kind.NOT_BASED, airplaneName, null, flightDetails));
+                }
+            } else if (departure < latestArrival) {
+                violations.add(new Violation(Kind.OVERLAP, airplaneName, latest, flightDetails));
+            } else {
+                addTurnaround(violations, latest, flightDetails);
+            }
+
+            long arrival = seconds(flightDetails.getArrival());
+            if (latest == null || arrival > latestArrival) {
+                latest = flightDetails;
+                latestArrival = arrival;
+            }
+        }
+        return violations;
+    }
+
+    private void addTurnaround(List<Violation> violations, Flight.FlightDetails previous, Flight.FlightDetails next) {
+        long groundSeconds = seconds(next.getDeparture()) - seconds(previous.getArrival());
+        if (groundSeconds < 0) {
+            violations.add(new Violation(Kind.OVERLAP, next.getAirplane(), previous, next));
+        } else if (previous.getArrivalAirport() != null && !previous.getArrivalAirport().equals(next.getDepartureAirport())) {
+            violations.add(new Violation(Kind.WRONG_AIRPORT, next.getAirplane(), previous, next));
+        } else if (groundSeconds < MINIMUM_TURNAROUND_SECONDS) {
+            violations.add(new Violation(Kind.SHORT_TURNAROUND, next.getAirplane(), previous, next));
+        }
+    }
+
+    private boolean isBasedAt(String airplaneName, String airportName) {
+        Set<String> airplanes = airportName != null ? airport.getAirplanes(airportName) : null;
+        return airplanes != null && airplanes.contains(airplaneName);
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @SuppressWarnings("serial")
+    private class ValidateTask extends RecursiveTask<List<List<Violation>>> {
+        private List<String> airplanes;
+        private Map<String, String> bases;
+        private int from;
+        private int to;
+
+        ValidateTask(List<String> airplanes, Map<String, String> bases, int from, int to) {
+            this.airplanes = airplanes;
+            this.bases = bases;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<List<Violation>> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                List<List<Violation>> violations = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    violations.add(validate(airplanes.get(i), bases));
+                }
+                return violations;
+            }
+
+            int middle = (from + to) >>> 1;
+            ValidateTask left = new ValidateTask(airplanes, bases, from, middle);
+            left.fork();
+            List<List<Violation>> violations = new ValidateTask(airplanes, bases, middle, to).compute();
+            List<List<Violation>> leftViolations = left.join();
+            leftViolations.addAll(violations);
+            return leftViolations;
+        }
+    }
+
+    static class Schedule {
+        private Node root;
+        private int size;
+
+        synchronized void add(Flight.FlightDetails flightDetails) {
+            root = insert(root, new Node(flightDetails));
+            size++;
+        }
+
+        synchronized boolean remove(Flight.FlightDetails flightDetails) {
+            int before = size;
+            root = delete(root, seconds(flightDetails.getDeparture()), flightDetails.getId());
+            return size < before;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized Flight.FlightDetails findOverlap(long departure, long arrival) {
+            Node node = root;
+            while (node != null) {
+                if (node.departure < arrival && node.arrival > departure) {
+                    return node.flight;
+                }
+                node = node.left != null && node.left.maxArrival > departure ? node.left : node.right;
+            }
+            return null;
+        }
+
+        synchronized Flight.FlightDetails before(Flight.FlightDetails flightDetails) {
+            long departure = seconds(flightDetails.getDeparture());
+            Node found = null;
+            for (Node node = root; node != null; ) {
+                if (compare(node, departure, flightDetails.getId()) < 0) {
+                    found = node;
+                    node = node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return found != null ? found.flight : null;
+        }
+
+        synchronized Flight.FlightDetails after(Flight.FlightDetails flightDetails) {
+            long departure = seconds(flightDetails.getDeparture());
+            Node found = null;
+            for (Node node = root; node != null; ) {
+                if (compare(node, departure, flightDetails.getId()) > 0) {
+                    found = node;
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+            return found != null ? found.flight : null;
+        }
+
+        synchronized List<Flight.FlightDetails> toList() {
+            List<Flight.FlightDetails> flights = new ArrayList<>(size);
+            List<Node> stack = new ArrayList<>();
+            Node node = root;
+            while (node != null || !stack.isEmpty()) {
+                while (node != null) {
+                    stack.add(node);
+                    node = node.left;
+                }
+                node = stack.remove(stack.size() - 1);
+                flights.add(node.flight);
+                node = node.right;
+            }
+            return flights;
+        }
+
+        private Node insert(Node node, Node added) {
+            if (node == null) {
+                return added;
+            }
+            if (compare(added, node.departure, node.flight.getId()) < 0) {
+                node.left = insert(node.left, added);
+                if (node.left.priority > node.priority) {
+                    node = rotateRight(node);
+                }
+            } else {
+                node.right = insert(node.right, added);
+                if (node.right.priority > node.priority) {
+                    node = rotateLeft(node);
+                }
+            }
+            node.update();
+            return node;
+        }
+
+        private Node delete(Node node, long departure, int flightId) {
+            if (node == null) {
+                return null;
+            }
+            int comparison = compare(node, departure, flightId);
+            if (comparison > 0) {
+                node.left = delete(node.left, departure, flightId);
+            } else if (comparison < 0) {
+                node.right = delete(node.right, departure, flightId);
+            } else if (node.left == null || node.right == null) {
+                size--;
+                return node.left != null ? node.left : node.right;
+            } else if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, departure, flightId);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, departure, flightId);
+            }
+            node.update();
+            return node;
+        }
+
+        private static int compare(Node node, long departure, int flightId) {
+            int comparison = Long.compare(node.departure, departure);
+            return comparison != 0 ? comparison : Integer.compare(node.flight.getId(), flightId);
+        }
+
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            node.update();
+            pivot.update();
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            node.update();
+            pivot.update();
+            return pivot;
+        }
+    }
+
+    private static class Node {
+        private Flight.FlightDetails flight;
+        private long departure;
+        private long arrival;
+        private long maxArrival;
+        private int priority;
+        private Node left;
+        private Node right;
+
+        Node(Flight.FlightDetails flight) {
+            this.flight = flight;
+            departure = seconds(flight.getDeparture());
+            arrival = seconds(flight.getArrival());
+            maxArrival = arrival;
+            priority = ThreadLocalRandom.current().nextInt();
+        }
+
+        void update() {
+            maxArrival = arrival;
+            if (left != null) {
+                maxArrival = Math.max(maxArrival, left.maxArrival);
+            }
+            if (right != null) {
+                maxArrival = Math.max(maxArrival, right.maxArrival);
+            }
+        }
+    }
+
+    public static class Violation {
+        private Kind kind;
+        private String airplane;
+        private Flight.FlightDetails previous;
+        private Flight.FlightDetails flight;
+
+        Violation(Kind kind, String airplane, Flight.FlightDetails previous, Flight.FlightDetails flight) {
+            this.kind = kind;
+            this.airplane = airplane;
+            this.previous = previous;
+            this.flight = flight;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getAirplane() {
+            return airplane;
+        }
+
+        public Flight.FlightDetails getPrevious() {
+            return previous;
+        }
+
+        public Flight.FlightDetails getFlight() {
+            return flight;
+        }
+
+        @Override
+        public String toString() {
+            switch (kind) {
+                case OVERLAP:
+                    return airplane + ": flight " + flight.getId() + " departs before flight " + previous.getId() + " arrives";
+                case WRONG_AIRPORT:
+                    return airplane + ": flight " + flight.getId() + " departs from " + flight.getDepartureAirport()
+                            + " but flight " + previous.getId() + " lands at " + previous.getArrivalAirport();
+                case SHORT_TURNAROUND:
+                    return airplane + ": less than " + MINIMUM_TURNAROUND_SECONDS / 60 + " minutes between flight "
+                            + previous.getId() + " and flight " + flight.getId();
+                default:
+                    return airplane + ": first flight " + flight.getId() + " departs from " + flight.getDepartureAirport()
+                            + ", where the airplane is not based";
+            }
+        }
+    }
+
+    public static class Report {
+        private int airplanes;
+        private int flights;
+        private List<Violation> violations;
+
+        Report() {
+            violations = new ArrayList<>();
+        }
+
+        public int getAirplanes() {
+            return airplanes;
+        }
+
+        public int getFlights() {
+            return flights;
+        }
+
+        public List<Violation> getViolations() {
+            return Collections.unmodifiableList(violations);
+        }
+
+        public int count(Kind kind) {
+            int count = 0;
+            for (Violation violation : violations) {
+                if (violation.kind == kind) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+class Route {
+    private List<String> routes;
+    private Airport airport;
+    private SymbolTable symbols;
+    private int[] routeDistances;
+    private int[] routeDepartures;
+    private int[] routeArrivals;
+    private int[] routeAirplanes;
+    private int[] airplaneRouteCounts;
+    private Map<String, Set<String>> airportToRoutes;
+    private Airplane airplane;
+    private Flight flight;
+    private Journal journal;
+    private int version;
+    private RouteGraph routeGraph;
+    private long routeGraphVersion;
+
+    public Route(Airport airport, Airplane airplane) {
+        routes = new ArrayList<>();
+        routeDistances = new int[0];
+        routeDepartures = new int[0];
+        routeArrivals = new int[0];
+        routeAirplanes = new int[0];
+        airplaneRouteCounts = new int[0];
+        airportToRoutes = new HashMap<>();
+        this.airport = airport;
+        symbols = airport.getSymbols();
+        this.airplane = airplane;
+        airport.setRoute(this);
+        airplane.setRoute(this);
+    }
+
+    public void setFlight(Flight flight) {
+        this.flight = flight;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    public Result createRoute(String departureAirport, String arrivalAirport, int distance, String selectedAirplane) {
+        long started = Metrics.CREATE_ROUTE.start();
+        Result result = validateRoute(departureAirport, arrivalAirport);
+        if (result != Result.OK) {
+            return result;
+        }
+
+        Airplane.AirplaneDetails selectedAirplaneDetails = airplane.getAirplaneDetails(selectedAirplane);
+        if (selectedAirplaneDetails == null || !selectedAirplaneDetails.getAirportName().equals(departureAirport)) {
+            Log.error("Error: The selected airplane is not available at the departure airport.");
+            return Result.CONFLICT;
+        }
+
+        if (selectedAirplaneDetails.getRange() < distance) {
+            Log.error("Error: The selected airplane does not have sufficient range for this route.");
+            return Result.CONFLICT;
+        }
+
+        String route = loadRoute(departureAirport, arrivalAirport, distance, selectedAirplane);
+        if (journal != null) {
+            journal.record(Journal.CREATE_ROUTE, departureAirport, arrivalAirport, distance, selectedAirplane);
+        }
+        Metrics.CREATE_ROUTE.stop(started);
+        Log.info("Route created: {}, Distance: {} km, Airplane: {}", route, distance, selectedAirplane);
+        return Result.OK;
+    }
+
+    public String loadRoute(String departureAirport, String arrivalAirport, int distance, String selectedAirplane) {
+        int id = symbols.intern(departureAirport + " - " + arrivalAirport);
+        String route = symbols.name(id);
+        ensureCapacity(id + 1);
+        routes.add(route);
+        routeDistances[id] = distance;
+        routeDepartures[id] = symbols.intern(departureAirport);
+        routeArrivals[id] = symbols.intern(arrivalAirport);
+        routeAirplanes[id] = symbols.intern(selectedAirplane);
+        countAirplane(routeAirplanes[id], 1);
+        airportToRoutes.computeIfAbsent(symbols.name(routeDepartures[id]), k -> new LinkedHashSet<>()).add(route);
+        airportToRoutes.computeIfAbsent(symbols.name(routeArrivals[id]), k -> new LinkedHashSet<>()).add(route);
+        version++;
+        return route;
+    }
+
+    public void prepareBulkLoad(int routeCount) {
+        if (routes.isEmpty()) {
+            routes = new ArrayList<>(routeCount);
+            ensureCapacity(symbols.size() + routeCount);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= routeDepartures.length) {
+            return;
+        }
+        int grown = Math.max(capacity, routeDepartures.length * 2);
+        int length = routeDepartures.length;
+        routeDistances = Arrays.copyOf(routeDistances, grown);
+        routeDepartures = Arrays.copyOf(routeDepartures, grown);
+        routeArrivals = Arrays.copyOf(routeArrivals, grown);
+        routeAirplanes = Arrays.copyOf(routeAirplanes, grown);
+        Arrays.fill(routeDepartures, length, grown, -1);
+    }
+
+    private void countAirplane(int airplaneId, int delta) {
+        if (airplaneId < 0) {
+            return;
+        }
+        if (airplaneId >= airplaneRouteCounts.length) {
+            airplaneRouteCounts = Arrays.copyOf(airplaneRouteCounts, Math.max(airplaneId + 1, airplaneRouteCounts.length * 2));
+        }
+        airplaneRouteCounts[airplaneId] += delta;
+    }
+
+    private int routeCount(int airplaneId) {
+        return airplaneId >= 0 && airplaneId < airplaneRouteCounts.length ? airplaneRouteCounts[airplaneId] : 0;
+    }
+
+    private int routeId(String route) {
+        int id = symbols.find(route);
+        return id >= 0 && id < routeDepartures.length && routeDepartures[id] >= 0 ? id : -1;
+    }
+
+    private Result validateRoute(String departureAirport, String arrivalAirport) {
+        if (!airport.existsAirport(departureAirport) || !airport.existsAirport(arrivalAirport)) {
+            Log.error("Error: One or both airports do not exist.");
+            return Result.NOT_FOUND;
+        }
+
+        if (departureAirport.equals(arrivalAirport)) {
+            Log.error("Error: Departure airport and arrival airport cannot be the same.");
+            return Result.CONFLICT;
+        }
+
+        if (routeId(departureAirport + " - " + arrivalAirport) >= 0) {
+            Log.error("Error: Route with the same airports already exists.");
+            return Result.CONFLICT;
+        }
+
+        if (!airport.hasAirplanes(departureAirport)) {
+            Log.error("Error: There are no airplanes available at the departure airport.");
+            return Result.CONFLICT;
+        }
+        return Result.OK;
+    }
+    public void deleteRoute(int index) {
+        if (index < 1 || index > routes.size()) {
+            Log.error("Error: Invalid route index.");
+            return;
+        }
+
+        deleteRoute(routes.get(index - 1));
+    }
+
+    public Result deleteRoute(String route) {
+        long started = Metrics.DELETE_ROUTE.start();
+        if (!routes.remove(route)) {
+            Log.error("Error: Route not found.");
+            return Result.NOT_FOUND;
+        }
+
+        removeRouteIndexes(route);
+        if (journal != null) {
+            journal.record(Journal.DELETE_ROUTE, route);
+        }
+        Metrics.DELETE_ROUTE.stop(started);
+        Log.info("Route deleted: {}", route);
+        return Result.OK;
+    }
+
+    public boolean assignAirplane(String route, String selectedAirplane) {
+        if (!setAirplane(route, selectedAirplane)) {
+            return false;
+        }
+        reassignFlights(route);
+        return true;
+    }
+
+    public boolean releaseAirplane(String route) {
+        if (!unsetAirplane(route)) {
+            return false;
+        }
+        reassignFlights(route);
+        return true;
+    }
+
+    public int assignAirplanes(Map<String, String> assignments) {
+        Set<String> claimed = new HashSet<>(assignments.values());
+        Set<String> changed = new LinkedHashSet<>();
+        for (String route : routes) {
+            String current = getAirplane(route);
+            if (current != null && !current.equals(assignments.get(route)) && claimed.contains(current) && unsetAirplane(route)) {
+                changed.add(route);
+            }
+        }
+
+        int assigned = 0;
+        for (Map.Entry<String, String> assignment : assignments.entrySet()) {
+            if (!assignment.getValue().equals(getAirplane(assignment.getKey())) && setAirplane(assignment.getKey(), assignment.getValue())) {
+                changed.add(assignment.getKey());
+                assigned++;
+            }
+        }
+        for (String route : changed) {
+            reassignFlights(route);
+        }
+        return assigned;
+    }
+
+    private boolean setAirplane(String route, String selectedAirplane) {
+        int id = routeId(route);
+        if (id < 0) {
+            Log.error("Error: Route not found.");
+            return false;
+        }
+        String departureAirport = symbols.name(routeDepartures[id]);
+
+        Airplane.AirplaneDetails selectedAirplaneDetails = airplane.getAirplaneDetails(selectedAirplane);
+        if (selectedAirplaneDetails == null || !selectedAirplaneDetails.getAirportName().equals(departureAirport)) {
+            Log.error("Error: The selected airplane is not available at the departure airport.");
+            return false;
+        }
+
+        if (selectedAirplaneDetails.getRange() < routeDistances[id]) {
+            Log.error("Error: The selected airplane does not have sufficient range for this route.");
+            return false;
+        }
+
+        int airplaneId = symbols.intern(selectedAirplane);
+        if (routeCount(airplaneId) > (routeAirplanes[id] == airplaneId ? 1 : 0)) {
+            Log.error("Error: The selected airplane is already assigned to another route.");
+            return false;
+        }
+
+        if (flight != null && selectedAirplaneDetails.getSeatCount() < flight.getPeakSoldSeats(route)) {
+            Log.error("Error: The selected airplane has fewer seats than are already sold on this route.");
+            return false;
+        }
+
+        countAirplane(routeAirplanes[id], -1);
+        countAirplane(airplaneId, 1);
+        routeAirplanes[id] = airplaneId;
+        version++;
+        if (journal != null) {
+            journal.record(Journal.ASSIGN_AIRPLANE, route, selectedAirplane);
+        }
+        Log.info("Airplane {} assigned to route {}", selectedAirplane, route);
+        return true;
+    }
+
+    private boolean unsetAirplane(String route) {
+        int id = routeId(route);
+        if (id < 0) {
+            Log.error("Error: Route not found.");
+            return false;
+        }
+
+        String releasedAirplane = symbols.name(routeAirplanes[id]);
+        countAirplane(routeAirplanes[id], -1);
+        routeAirplanes[id] = -1;
+        version++;
+        if (journal != null) {
+            journal.record(Journal.RELEASE_AIRPLANE, route);
+        }
+        Log.info("Airplane {} released from route {}", releasedAirplane, route);
+        return true;
+    }
+
+    private void reassignFlights(String route) {
+        if (flight != null) {
+            flight.reassignAirplane(route);
+        }
+    }
+
+    public void deleteRoutesForAirport(String airportName) {
+        Set<String> airportRoutes = airportToRoutes.get(airportName);
+        if (airportRoutes == null || airportRoutes.isEmpty()) {
+            return;
+        }
+
+        Set<String> routesToDelete = new LinkedHashSet<>(airportRoutes);
+        routes.removeAll(routesToDelete);
+        for (String route : routesToDelete) {
+            removeRouteIndexes(route);
+            Log.info("Route deleted: {}", route);
+        }
+    }
+
+    private void removeRouteIndexes(String route) {
+        version++;
+        int id = routeId(route);
+        String departureAirport = id >= 0 ? symbols.name(routeDepartures[id]) : null;
+        String arrivalAirport = id >= 0 ? symbols.name(routeArrivals[id]) : null;
+        if (id >= 0) {
+            routeDepartures[id] = -1;
+            countAirplane(routeAirplanes[id], -1);
+        }
+        removeAirportRoute(departureAirport, route);
+        removeAirportRoute(arrivalAirport, route);
+        if (flight != null) {
+            flight.deleteFlightsForRoute(route);
+        }
+    }
+
+    private void removeAirportRoute(String airportName, String route) {
+        Set<String> airportRoutes = airportToRoutes.get(airportName);
+        if (airportRoutes != null) {
+            airportRoutes.remove(route);
+            if (airportRoutes.isEmpty()) {
+                airportToRoutes.remove(airportName);
+            }
+        }
+    }
+
+    public void viewRoutes() {
+        System.out.println("Routes:");
+        for (int i = 0; i < routes.size(); i++) {
+            System.out.println((i + 1) + ". " + routes.get(i));
+        }
+    }
+
+    public String getRoute(int index) {
+        if (index < 1 || index > routes.size()) {
+            return null;
+        }
+        return routes.get(index - 1);
+    }
+    public List<String> getRoutes() {
+        return routes;
+    }
+
+    public int getDistance(String route) {
+        int id = routeId(route);
+        return id >= 0 ? routeDistances[id] : 0;
+    }
+
+    public String getDepartureAirport(String route) {
+        int id = routeId(route);
+        return id >= 0 ? symbols.name(routeDepartures[id]) : null;
+    }
+
+    public String getArrivalAirport(String route) {
+        int id = routeId(route);
+        return id >= 0 ? symbols.name(routeArrivals[id]) : null;
+    }
+
+    public String getAirplane(String route) {
+        int id = routeId(route);
+        return id >= 0 ? symbols.name(routeAirplanes[id]) : null;
+    }
+
+    public boolean isAssigned(String airplaneName) {
+        return routeCount(symbols.find(airplaneName)) > 0;
+    }
+
+    public Set<String> getRoutesForAirport(String airportName) {
+        return airportToRoutes.getOrDefault(airportName, Collections.emptySet());
+    }
+
+    public synchronized RouteGraph getRouteGraph() {
+        long currentVersion = ((long) version << 32) | (airplane.getVersion() & 0xFFFFFFFFL);
+        if (routeGraph == null || routeGraphVersion != currentVersion) {
+            routeGraph = RouteGraph.build(this, airplane);
+            routeGraphVersion = currentVersion;
+        }
+        return routeGraph;
+    }
+
+    public void clear() {
+        routes.clear();
+        Arrays.fill(routeDepartures, -1);
+        Arrays.fill(routeAirplanes, -1);
+        Arrays.fill(airplaneRouteCounts, 0);
+        airportToRoutes.clear();
+        version++;
+    }
+}
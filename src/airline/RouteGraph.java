@@ -0,0 +1,498 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+class RouteGraph {
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+    private static final int LANDMARK_COUNT = 4;
+    private static final int POOLED_SEARCHES = Runtime.getRuntime().availableProcessors();
+
+    private String[] airportNames;
+    private Map<String, Integer> airportIds;
+    private int[] offsets;
+    private int[] sources;
+    private int[] targets;
+    private int[] distances;
+    private int[] ranges;
+    private String[] edgeRoutes;
+    private int[] reverseOffsets;
+    private int[] reverseEdges;
+    private volatile long[][] fromLandmark;
+    private volatile long[][] toLandmark;
+    private BlockingQueue<Search> searches;
+
+    private RouteGraph() {
+        searches = new ArrayBlockingQueue<>(POOLED_SEARCHES);
+    }
+
+    public static RouteGraph build(Route route, Airplane airplane) {
+        RouteGraph graph = new RouteGraph();
+        List<String> routes = route.getRoutes();
+        int edgeCount = routes.size();
+
+        graph.airportIds = HashMap.newHashMap(edgeCount);
+        List<String> names = new ArrayList<>();
+        int[] edgeSources = new int[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            String routeName = routes.get(i);
+            edgeSources[i] = graph.intern(route.getDepartureAirport(routeName), names);
+            edgeTargets[i] = graph.intern(route.getArrivalAirport(routeName), names);
+        }
+        graph.airportNames = names.toArray(new String[0]);
+        int airportCount = graph.airportNames.length;
+
+        graph.offsets = new int[airportCount + 1];
+        graph.reverseOffsets = new int[airportCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            graph.offsets[edgeSources[i] + 1]++;
+            graph.reverseOffsets[edgeTargets[i] + 1]++;
+        }
+        for (int i = 0; i < airportCount; i++) {
+            graph.offsets[i + 1] += graph.offsets[i];
+            graph.reverseOffsets[i + 1] += graph.reverseOffsets[i];
+        }
+
+        graph.sources = new int[edgeCount];
+        graph.targets = new int[edgeCount];
+        graph.distances = new int[edgeCount];
+        graph.ranges = new int[edgeCount];
+        graph.edgeRoutes = new String[edgeCount];
+        graph.reverseEdges = new int[edgeCount];
+        int[] next = Arrays.copyOf(graph.offsets, airportCount);
+        int[] reverseNext = Arrays.copyOf(graph.reverseOffsets, airportCount);
+        for (int i = 0; i < edgeCount; i++) {
+            String routeName = routes.get(i);
+            int edge = next[edgeSources[i]]++;
+            graph.sources[edge] = edgeSources[i];
+            graph.targets[edge] = edgeTargets[i];
+            graph.distances[edge] = route.getDistance(routeName);
+            graph.edgeRoutes[edge] = routeName;
+            String airplaneName = route.getAirplane(routeName);
+            Airplane.AirplaneDetails airplaneDetails = airplaneName != null ? airplane.getAirplaneDetails(airplaneName) : null;
+            graph.ranges[edge] = airplaneDetails != null ? airplaneDetails.getRange() : 0;
+            graph.reverseEdges[reverseNext[edgeTargets[i]]++] = edge;
+        }
+        return graph;
+    }
+
+    public int getAirportCount() {
+        return airportNames.length;
+    }
+
+    public int getRouteCount() {
+        return targets.length;
+    }
+
+    public long shortestDistance(String departureAirport, String arrivalAirport) {
+        long started = Metrics.ROUTE_SEARCH.start();
+        long distance = searchShortestDistance(departureAirport, arrivalAirport);
+        Metrics.ROUTE_SEARCH.stop(started);
+        return distance;
+    }
+
+    private long searchShortestDistance(String departureAirport, String arrivalAirport) {
+        Integer source = airportIds.get(departureAirport);
+        Integer target = airportIds.get(arrivalAirport);
+        if (source == null || target == null) {
+            return -1;
+        }
+        if (source.equals(target)) {
+            return 0;
+        }
+
+        Search search = acquireSearch();
+        try {
+            return search(search, source, target, false, null, null) ? search.distance[target] : -1;
+        } finally {
+            searches.offer(search);
+        }
+    }
+
+    public Itinerary shortestItinerary(String departureAirport, String arrivalAirport) {
+        List<Itinerary> itineraries = kShortestItineraries(departureAirport, arrivalAirport, 1);
+        return itineraries.isEmpty() ? null : itineraries.get(0);
+    }
+
+    public List<Itinerary> kShortestItineraries(String departureAirport, String arrivalAirport, int count) {
+        long started = Metrics.ROUTE_SEARCH.start();
+        List<Itinerary> itineraries = searchKShortestItineraries(departureAirport, arrivalAirport, count);
+        Metrics.ROUTE_SEARCH.stop(started);
+        return itineraries;
+    }
+
+    private List<Itinerary> searchKShortestItineraries(String departureAirport, String arrivalAirport, int count) {
+        Integer source = airportIds.get(departureAirport);
+        Integer target = airportIds.get(arrivalAirport);
+        if (source == null || target == null || source.equals(target) || count < 1) {
+            return Collections.emptyList();
+        }
+
+        Search search = acquireSearch();
+        try {
+            return searchKShortestItineraries(search, source, target, count);
+        } finally {
+            searches.offer(search);
+        }
+    }
+
+    private List<Itinerary> searchKShortestItineraries(Search search, int source, int target, int count) {
+        if (!search(search, source, target, true, null, null)) {
+            return Collections.emptyList();
+        }
+
+        List<int[]> found = new ArrayList<>();
+        found.add(search.path(target));
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<String> seen = new HashSet<>();
+        seen.add(Arrays.toString(found.get(0)));
+
+        while (found.size() < count) {
+            int[] previous = found.get(found.size() - 1);
+            BitSet blockedNodes = new BitSet(airportNames.length);
+            long rootDistance = 0;
+            for (int spur = 0; spur < previous.length; spur++) {
+                int spurNode = sources[previous[spur]];
+                BitSet blockedEdges = new BitSet(targets.length);
+                for (int[] path : found) {
+                    if (path.length > spur && Arrays.equals(path, 0, spur, previous, 0, spur)) {
+                        blockedEdges.set(path[spur]);
+                    }
+                }
+
+                if (search(search, spurNode, target, true, blockedNodes, blockedEdges)) {
+                    int[] spurPath = search.path(target);
+                    int[] path = Arrays.copyOf(previous, spur + spurPath.length);
+                    System.arraycopy(spurPath, 0, path, spur, spurPath.length);
+                    if (seen.add(Arrays.toString(path))) {
+                        candidates.add(new Candidate(path, rootDistance + search.distance[target]));
+                    }
+                }
+
+                blockedNodes.set(spurNode);
+                rootDistance += distances[previous[spur]];
+            }
+
+            Candidate best = candidates.poll();
+            if (best == null) {
+                break;
+            }
+            found.add(best.path);
+        }
+
+        List<Itinerary> itineraries = new ArrayList<>(found.size());
+        for (int[] path : found) {
+            itineraries.add(toItinerary(path));
+        }
+        return itineraries;
+    }
+
+    private Search acquireSearch() {
+        Search search = searches.poll();
+        return search != null ? search : new Search(airportNames.length);
+    }
+
+    private boolean search(Search search, int source, int target, boolean useLandmarks, BitSet blockedNodes, BitSet blockedEdges) {
+        long[][] forward = null;
+        long[][] backward = null;
+        long[] targetFrom = null;
+        long[] targetTo = null;
+        if (useLandmarks) {
+            if (fromLandmark == null) {
+                ensureLandmarks();
+            }
+            forward = fromLandmark;
+            backward = toLandmark;
+            targetFrom = new long[forward.length];
+            targetTo = new long[backward.length];
+            for (int l = 0; l < forward.length; l++) {
+                targetFrom[l] = forward[l][target];
+                targetTo[l] = backward[l][target];
+            }
+        }
+
+        search.reset();
+        search.open(source, 0, -1, 0);
+        while (search.size > 0) {
+            int node = search.pop();
+            if (node == target) {
+                return true;
+            }
+
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                if (ranges[edge] < distances[edge] || (blockedEdges != null && blockedEdges.get(edge))) {
+                    continue;
+                }
+                int next = targets[edge];
+                if ((blockedNodes != null && blockedNodes.get(next)) || search.isClosed(next)) {
+                    continue;
+                }
+
+                long distance = search.distance[node] + distances[edge];
+                if (!search.isSeen(next) || distance < search.distance[next]) {
+                    long estimate = useLandmarks ? lowerBound(next, forward, backward, targetFrom, targetTo) : 0;
+                    search.open(next, distance, edge, distance + estimate);
+                }
+            }
+        }
+        return false;
+    }
+
+    private long lowerBound(int node, long[][] forward, long[][] backward, long[] targetFrom, long[] targetTo) {
+        long bound = 0;
+        for (int l = 0; l < forward.length; l++) {
+            if (forward[l][node] != UNREACHABLE && targetFrom[l] != UNREACHABLE) {
+                bound = Math.max(bound, targetFrom[l] - forward[l][node]);
+            }
+            if (backward[l][node] != UNREACHABLE && targetTo[l] != UNREACHABLE) {
+                bound = Math.max(bound, backward[l][node] - targetTo[l]);
+            }
+        }
+        return bound;
+    }
+
+    private synchronized void ensureLandmarks() {
+        if (fromLandmark != null) {
+            return;
+        }
+
+        int landmarkCount = Math.min(LANDMARK_COUNT, airportNames.length);
+        long[][] forward = new long[landmarkCount][];
+        long[][] backward = new long[landmarkCount][];
+        long[] closest = new long[airportNames.length];
+        Arrays.fill(closest, UNREACHABLE);
+        int landmark = 0;
+        for (int l = 0; l < landmarkCount; l++) {
+            forward[l] = allDistances(landmark, false);
+            backward[l] = allDistances(landmark, true);
+            int farthest = landmark;
+            for (int node = 0; node < airportNames.length; node++) {
+                long distance = Math.min(forward[l][node], backward[l][node]);
+                closest[node] = Math.min(closest[node], distance);
+                if (closest[node] != UNREACHABLE && (closest[farthest] == UNREACHABLE || closest[node] > closest[farthest])) {
+                    farthest = node;
+                }
+            }
+            landmark = farthest;
+        }
+        toLandmark = backward;
+        fromLandmark = forward;
+    }
+
+    private long[] allDistances(int source, boolean reverse) {
+        Search search = new Search(airportNames.length);
+        search.reset();
+        search.open(source, 0, -1, 0);
+        while (search.size > 0) {
+            int node = search.pop();
+            int[] adjacency = reverse ? reverseOffsets : offsets;
+            for (int i = adjacency[node]; i < adjacency[node + 1]; i++) {
+                int edge = reverse ? reverseEdges[i] : i;
+                if (ranges[edge] < distances[edge]) {
+                    continue;
+                }
+                int next = reverse ? sources[edge] : targets[edge];
+                long distance = search.distance[node] + distances[edge];
+                if (!search.isClosed(next) && (!search.isSeen(next) || distance < search.distance[next])) {
+                    search.open(next, distance, edge, distance);
+                }
+            }
+        }
+
+        long[] result = new long[airportNames.length];
+        for (int node = 0; node < result.length; node++) {
+            result[node] = search.isSeen(node) ? search.distance[node] : UNREACHABLE;
+        }
+        return result;
+    }
+
+    private Itinerary toItinerary(int[] path) {
+        List<String> airports = new ArrayList<>(path.length + 1);
+        List<String> routes = new ArrayList<>(path.length);
+        long distance = 0;
+        airports.add(airportNames[sources[path[0]]]);
+        for (int edge : path) {
+            airports.add(airportNames[targets[edge]]);
+            routes.add(edgeRoutes[edge]);
+            distance += distances[edge];
+        }
+        return new Itinerary(airports, routes, distance);
+    }
+
+    private int intern(String airportName, List<String> names) {
+        Integer id = airportIds.get(airportName);
+        if (id == null) {
+            id = names.size();
+            airportIds.put(airportName, id);
+            names.add(airportName);
+        }
+        return id;
+    }
+
+    public static class Itinerary {
+        private List<String> airports;
+        private List<String> routes;
+        private long distance;
+
+        Itinerary(List<String> airports, List<String> routes, long distance) {
+            this.airports = airports;
+            this.routes = routes;
+            this.distance = distance;
+        }
+
+        public List<String> getAirports() {
+            return airports;
+        }
+
+        public List<String> getRoutes() {
+            return routes;
+        }
+
+        public long getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" -> ", airports) + " (" + distance + " km, " + routes.size() + (routes.size() == 1 ? " leg)" : " legs)");
+        }
+    }
+
+    private static class Candidate implements Comparable<Candidate> {
+        private int[] path;
+        private long distance;
+
+        Candidate(int[] path, long distance) {
+            this.path = path;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byDistance = Long.compare(distance, other.distance);
+            return byDistance != 0 ? byDistance : Integer.compare(path.length, other.path.length);
+        }
+    }
+
+    private class Search {
+        private long[] distance;
+        private long[] priority;
+        private int[] previousEdge;
+        private int[] seen;
+        private int[] closed;
+        private int[] heap;
+        private int[] heapIndex;
+        private int size;
+        private int generation;
+
+        Search(int airportCount) {
+            distance = new long[airportCount];
+            priority = new long[airportCount];
+            previousEdge = new int[airportCount];
+            seen = new int[airportCount];
+            closed = new int[airportCount];
+            heap = new int[airportCount];
+            heapIndex = new int[airportCount];
+        }
+
+        void reset() {
+            size = 0;
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(closed, 0);
+                generation = 1;
+            }
+        }
+
+        boolean isSeen(int node) {
+            return seen[node] == generation;
+        }
+
+        boolean isClosed(int node) {
+            return closed[node] == generation;
+        }
+
+        void open(int node, long nodeDistance, int edge, long nodePriority) {
+            distance[node] = nodeDistance;
+            previousEdge[node] = edge;
+            priority[node] = nodePriority;
+            if (!isSeen(node)) {
+                seen[node] = generation;
+                heapIndex[node] = size;
+                heap[size++] = node;
+            }
+            siftUp(heapIndex[node]);
+        }
+
+        int pop() {
+            int node = heap[0];
+            closed[node] = generation;
+            heap[0] = heap[--size];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+            return node;
+        }
+
+        int[] path(int target) {
+            int length = 0;
+            for (int edge = previousEdge[target]; edge >= 0; edge = previousEdge[sources[edge]]) {
+                length++;
+            }
+            int[] path = new int[length];
+            for (int edge = previousEdge[target]; edge >= 0; edge = previousEdge[sources[edge]]) {
+                path[--length] = edge;
+            }
+            return path;
+        }
+
+        private void siftUp(int index) {
+            int node = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (priority[heap[parent]] <= priority[node]) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                heapIndex[heap[index]] = index;
+                index = parent;
+            }
+            heap[index] = node;
+            heapIndex[node] = index;
+        }
+
+        private void siftDown(int index) {
+            if (size == 0) {
+                return;
+            }
+            int node = heap[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && priority[heap[child + 1]] < priority[heap[child]]) {
+                    child++;
+                }
+                if (priority[node] <= priority[heap[child]]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                heapIndex[heap[index]] = index;
+                index = child;
+            }
+            heap[index] = node;
+            heapIndex[node] = index;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class SeatMap {
+    enum Cabin {
+        BUSINESS, ECONOMY
+    }
+
+    private static final String LETTERS = "ABCDEFGHJK";
+    private static final Map<Integer, Layout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private Layout layout;
+    private AtomicLongArray taken;
+    private AtomicIntegerArray available;
+
+    public SeatMap(int seatCount) {
+        layout = LAYOUTS.computeIfAbsent(Math.max(0, seatCount), Layout::new);
+        taken = new AtomicLongArray(layout.words);
+        available = new AtomicIntegerArray(Cabin.values().length);
+        for (Row row : layout.rows) {
+            available.addAndGet(row.cabin.ordinal(), row.width);
+        }
+    }
+
+    public static int encode(String seat) {
+        if (seat == null || seat.length() < 2) {
+            return -1;
+        }
+        int column = LETTERS.indexOf(seat.charAt(seat.length() - 1));
+        return column < 0 ? -1 : Integer.parseInt(seat.substring(0, seat.length() - 1)) << 4 | column;
+    }
+
+    public static String decode(int seat) {
+        return seat < 0 ? null : (seat >>> 4) + String.valueOf(LETTERS.charAt(seat & 15));
+    }
+
+    public int getSeatCount() {
+        return layout.seatCount;
+    }
+
+    public int getAvailable() {
+        int total = 0;
+        for (Cabin cabin : Cabin.values()) {
+            total += available.get(cabin.ordinal());
+        }
+        return total;
+    }
+
+    public int getAvailable(Cabin cabin) {
+        return available.get(cabin.ordinal());
+    }
+
+    public Cabin getCabin(String seat) {
+        Row row = layout.findRow(seat);
+        return row != null ? row.cabin : null;
+    }
+
+    public List<String> getRows() {
+        List<String> rows = new ArrayList<>(layout.rows.length);
+        for (Row row : layout.rows) {
+            long free = ~taken.get(row.word) & row.mask;
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%3d %s ", row.number, row.cabin == Cabin.BUSINESS ? "B" : "E"));
+            for (int column = 0; column < row.width; column++) {
+                if (row.isAisle(column)) {
+                    text.append(' ');
+                }
+                text.append((free & (1L << (row.offset + column))) != 0 ? LETTERS.charAt(column) : '.');
+            }
+            rows.add(text.toString());
+        }
+        return rows;
+    }
+
+    public String claim(String seat) {
+        Row row = layout.findRow(seat);
+        if (row == null) {
+            return null;
+        }
+        int column = LETTERS.indexOf(seat.charAt(seat.length() - 1));
+        return claim(row, 1L << (row.offset + column)) ? seat : null;
+    }
+
+    public String claimAny(Cabin cabin) {
+        for (Cabin candidate : cabin != null ? new Cabin[]{cabin} : new Cabin[]{Cabin.ECONOMY, Cabin.BUSINESS}) {
+            while (available.get(candidate.ordinal()) > 0) {
+                boolean raced = false;
+                for (Row row : layout.rows) {
+                    if (row.cabin != candidate) {
+                        continue;
+                    }
+                    long free = ~taken.get(row.word) & row.mask;
+                    if (free == 0) {
+                        continue;
+                    }
+                    long bit = Long.lowestOneBit(free);
+                    if (claim(row, bit)) {
+                        return row.label(Long.numberOfTrailingZeros(bit) - row.offset);
+                    }
+                    raced = true;
+                }
+                if (!raced) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    public List<String> claimBlock(Cabin cabin, int count) {
+        if (count < 1) {
+            return null;
+        }
+        while (true) {
+            Row bestRow = null;
+            long bestBits = 0;
+            int bestScore = Integer.MAX_VALUE;
+            for (Row row : layout.rows) {
+                if ((cabin != null && row.cabin != cabin) || row.width < count || available.get(row.cabin.ordinal()) < count) {
+                    continue;
+                }
+                long free = ~taken.get(row.word) & row.mask;
+                for (int start = 0; start + count <= row.width; start++) {
+                    long bits = ((1L << count) - 1) << (row.offset + start);
+                    if ((free & bits) != bits) {
+                        continue;
+                    }
+                    int score = row.aislesWithin(start, count) * 1000 + row.number;
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestRow = row;
+                        bestBits = bits;
+                    }
+                }
+                if (bestScore < 1000) {
+                    break;
+                }
+            }
+            if (bestRow == null) {
+                return null;
+            }
+            if (claim(bestRow, bestBits)) {
+                List<String> seats = new ArrayList<>(count);
+                for (long bits = bestBits; bits != 0; bits &= bits - 1) {
+                    seats.add(bestRow.label(Long.numberOfTrailingZeros(bits) - bestRow.offset));
+                }
+                return seats;
+            }
+        }
+    }
+
+    public boolean release(String seat) {
+        Row row = layout.findRow(seat);
+        if (row == null) {
+            return false;
+        }
+        long bit = 1L << (row.offset + LETTERS.indexOf(seat.charAt(seat.length() - 1)));
+        while (true) {
+            long current = taken.get(row.word);
+            if ((current & bit) == 0) {
+                return false;
+            }
+            if (taken.compareAndSet(row.word, current, current & ~bit)) {
+                available.incrementAndGet(row.cabin.ordinal());
+                return true;
+            }
+        }
+    }
+
+    private boolean claim(Row row, long bits) {
+        while (true) {
+            long current = taken.get(row.word);
+            if ((current & bits) != 0) {
+                return false;
+            }
+            if (taken.compareAndSet(row.word, current, current | bits)) {
+                available.addAndGet(row.cabin.ordinal(), -Long.bitCount(bits));
+                return true;
+            }
+        }
+    }
+
+    private static class Layout {
+        private int seatCount;
+        private Row[] rows;
+        private int words;
+
+        Layout(int seatCount) {
+            this.seatCount = seatCount;
+            int economyWidth = seatCount <= 20 ? 2 : seatCount <= 60 ? 4 : seatCount <= 250 ? 6 : 9;
+            int businessWidth = seatCount >= 60 ? Math.max(4, economyWidth - 2) : 0;
+            int businessSeats = businessWidth > 0 ? Math.max(businessWidth, seatCount / 10 / businessWidth * businessWidth) : 0;
+
+            List<Row> layoutRows = new ArrayList<>();
+            int bit = 0;
+            int remaining = seatCount;
+            while (remaining > 0) {
+                boolean business = seatCount - remaining < businessSeats;
+                int width = Math.min(remaining, business ? businessWidth : economyWidth);
+                if ((bit & 63) + width > 64) {
+                    bit = (bit | 63) + 1;
+                }
+                layoutRows.add(new Row(layoutRows.size() + 1, business ? Cabin.BUSINESS : Cabin.ECONOMY, bit >>> 6, bit & 63, width,
+                        business ? businessWidth : economyWidth));
+                bit += width;
+                remaining -= width;
+            }
+            rows = layoutRows.toArray(new Row[0]);
+            words = (bit + 63) >>> 6;
+        }
+
+        Row findRow(String seat) {
+            if (seat == null || seat.length() < 2) {
+                return null;
+            }
+            int number;
+            try {
+                number = Integer.parseInt(seat.substring(0, seat.length() - 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            int column = LETTERS.indexOf(seat.charAt(seat.length() - 1));
+            if (number < 1 || number > rows.length || column < 0 || column >= rows[number - 1].width) {
+                return null;
+            }
+            return rows[number - 1];
+        }
+    }
+
+    private static class Row {
+        private int number;
+        private Cabin cabin;
+        private int word;
+        private int offset;
+        private int width;
+        private int fullWidth;
+        private long mask;
+
+        Row(int number, Cabin cabin, int word, int offset, int width, int fullWidth) {
+            this.number = number;
+            this.cabin = cabin;
+            this.word = word;
+            this.offset = offset;
+            this.width = width;
+            this.fullWidth = fullWidth;
+            this.mask = (width == 64 ? -1L : (1L << width) - 1) << offset;
+        }
+
+        boolean isAisle(int column) {
+            if (column == 0) {
+                return false;
+            }
+            return fullWidth == 9 ? column % 3 == 0 : column == fullWidth / 2;
+        }
+
+        int aislesWithin(int start, int count) {
+            int aisles = 0;
+            for (int column = start + 1; column < start + count; column++) {
+                if (isAisle(column)) {
+                    aisles++;
+                }
+            }
+            return aisles;
+        }
+
+        String label(int column) {
+            return number + String.valueOf(LETTERS.charAt(column));
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package airline;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+class SnapshotLoader {
+    static final long MIN_PARALLEL_BYTES = Long.getLong("airline.load.parallel", 32L << 20);
+    private static final int CHUNK_BYTES = Integer.getInteger("airline.load.chunk", 4 << 20);
+    private static final int SCAN_BUFFER_SIZE = 1 << 20;
+    private static final byte[] JOURNAL = "Journal:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FORMAT = "Format:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COUNTS = "Counts:".getBytes(StandardCharsets.US_ASCII);
+
+    enum Section {
+        AIRPORTS("Airports:"),
+        ROUTES("Routes:"),
+        FLIGHTS("Flights:"),
+        CLIENTS("Clients:"),
+        TICKETS("Tickets:");
+
+        private final byte[] header;
+
+        Section(String header) {
+            this.header = header.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private FileChannel channel;
+    private Airport airport;
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+    private ClientRegistry clients;
+    private BookingEngine bookingEngine;
+    private long sequence;
+    private List<Chunk> chunks;
+    private Section section;
+    private Chunk chunk;
+    private int recordLines;
+    private int recordLine;
+
+    private SnapshotLoader(FileChannel channel, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) {
+        this.channel = channel;
+        this.airport = airport;
+        this.airplane = airplane;
+        this.route = route;
+        this.flight = flight;
+        this.clients = clients;
+        this.bookingEngine = bookingEngine;
+        chunks = new ArrayList<>();
+    }
+
+    public static long read(Path path, Airport airport, Airplane airplane, Route route, Flight flight, ClientRegistry clients, BookingEngine bookingEngine) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            SnapshotLoader loader = new SnapshotLoader(channel, airport, airplane, route, flight, clients, bookingEngine);
+            loader.scan();
+            loader.load();
+            return loader.sequence;
+        }
+    }
+
+    private void scan() throws IOException {
+        byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+        long base = 0;
+        int length = 0;
+        int scanned = 0;
+        while (true) {
+            int read = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length), base + length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+            int lineStart = 0;
+            for (int i = scanned; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    scanLine(buffer, lineStart, i, base + lineStart, base + i + 1);
+                    lineStart = i + 1;
+                }
+            }
+            System.arraycopy(buffer, lineStart, buffer, 0, length - lineStart);
+            base += lineStart;
+            length -= lineStart;
+            scanned = length;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
+            }
+        }
+        if (length > 0) {
+            scanLine(buffer, 0, length, base, base + length);
+        }
+        closeChunk(base + length);
+    }
+
+    private void scanLine(byte[] buffer, int from, int to, long offset, long next) throws IOException {
+        if (from < to && isHeaderStart(buffer[from]) && scanHeader(buffer, from, to, offset, next)) {
+            return;
+        }
+        if (section == null || recordLines == 0) {
+            return;
+        }
+        if (recordLine == 0) {
+            if (offset - chunk.start >= CHUNK_BYTES) {
+                closeChunk(offset);
+                chunk = new Chunk(section, offset);
+            }
+            chunk.records++;
+        }
+        if (++recordLine == recordLines) {
+            recordLine = 0;
+        }
+    }
+
+    private boolean scanHeader(byte[] buffer, int from, int to, long offset, long next) throws IOException {
+        if (startsWith(buffer, from, to, JOURNAL)) {
+            sequence = Long.parseLong(text(buffer, from + JOURNAL.length, to));
+            return true;
+        }
+        if (startsWith(buffer, from, to, FORMAT)) {
+            int format = Integer.parseInt(text(buffer, from + FORMAT.length, to));
+            if (format != Main.SNAPSHOT_FORMAT) {
+                throw new IOException("Unsupported snapshot format " + format + ".");
+            }
+            return true;
+        }
+        if (startsWith(buffer, from, to, COUNTS)) {
+            Main.prepareBulkLoad(text(buffer, from + COUNTS.length, to), airport, airplane, route, flight, clients, bookingEngine);
+            return true;
+        }
+        for (Section candidate : Section.values()) {
+            if (startsWith(buffer, from, to, candidate.header)) {
+                closeChunk(offset);
+                section = candidate;
+                recordLines = recordLines(candidate);
+                recordLine = 0;
+                chunk = new Chunk(candidate, next);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void closeChunk(long end) {
+        if (chunk != null && end > chunk.start) {
+            chunk.end = end;
+            chunks.add(chunk);
+        }
+        chunk = null;
+    }
+
+    private int recordLines(Section section) {
+        switch (section) {
+            case ROUTES:
+                return 4;
+            case FLIGHTS:
+                return 5;
+            case CLIENTS:
+                return 5;
+            case TICKETS:
+                return 6;
+            default:
+                return 0;
+        }
+    }
+
+    private void load() throws IOException {
+        chunks.sort(Comparator.comparing((Chunk loaded) -> loaded.section));
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = Math.max(2, pool.getParallelism() * 2);
+        Deque<ParseTask> pending = new ArrayDeque<>();
+        int forked = 0;
+        try {
+            for (int linked = 0; linked < chunks.size(); linked++) {
+                while (forked < chunks.size() && forked - linked < window) {
+                    ParseTask task = new ParseTask(channel, chunks.get(forked++));
+                    pool.execute(task);
+                    pending.add(task);
+                }
+                Batch batch;
+                try {
+                    batch = pending.poll().join();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                batch.link(this);
+            }
+        } finally {
+            for (ParseTask task : pending) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private static boolean isHeaderStart(byte value) {
+        return value == 'J' || value == 'F' || value == 'C' || value == 'A' || value == 'R' || value == 'T';
+    }
+
+    private static boolean startsWith(byte[] buffer, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String text(byte[] buffer, int from, int to) {
+        return new String(buffer, from, to - from, StandardCharsets.UTF_8).trim();
+    }
+
+    private static class Chunk {
+        private Section section;
+        private long start;
+        private long end;
+        private int records;
+
+        Chunk(Section section, long start) {
+            this.section = section;
+            this.start = start;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class ParseTask extends RecursiveTask<Batch> {
+        private FileChannel channel;
+        private Chunk chunk;
+
+        ParseTask(FileChannel channel, Chunk chunk) {
+            this.channel = channel;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected Batch compute() {
+            try {
+                byte[] bytes = new byte[Math.toIntExact(chunk.end - chunk.start)];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, chunk.start + buffer.position()) < 0) {
+                        throw new EOFException("Snapshot file was truncated while loading.");
+                    }
+                }
+
+                Lines lines = new Lines(bytes);
+                Batch batch;
+                switch (chunk.section) {
+                    case AIRPORTS:
+                        batch = new AirportBatch();
+                        break;
+                    case ROUTES:
+                        batch = new RouteBatch(chunk.records);
+                        break;
+                    case FLIGHTS:
+                        batch = new FlightBatch(chunk.records);
+                        break;
+                    case CLIENTS:
+                        batch = new ClientBatch(chunk.records);
+                        break;
+                    default:
+                        batch = new TicketBatch(chunk.records);
+                        break;
+                }
+                batch.parse(lines);
+                return batch;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class Lines {
+        private byte[] bytes;
+        private int position;
+        private int from;
+        private int to;
+        private boolean indented;
+
+        Lines(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        boolean next() {
+            if (position >= bytes.length) {
+                return false;
+            }
+            int end = position;
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+            indented = end - position >= 2 && bytes[position] == ' ' && bytes[position + 1] == ' ';
+            from = position;
+            to = end;
+            position = end + 1;
+            while (from < to && (bytes[from] & 0xFF) <= ' ') {
+                from++;
+            }
+            while (to > from && (bytes[to - 1] & 0xFF) <= ' ') {
+                to--;
+            }
+            return true;
+        }
+
+        Lines require() throws IOException {
+            if (!next()) {
+                throw new EOFException("Snapshot ends in the middle of a record.");
+            }
+            return this;
+        }
+
+        boolean isIndented() {
+            return indented;
+        }
+
+        String text() {
+            return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        }
+
+        int intValue() {
+            long value = longValue();
+            if (value != (int) value) {
+                throw new NumberFormatException("For input string: \"" + text() + "\"");
+            }
+            return (int) value;
+        }
+
+        long longValue() {
+            int i = from;
+            boolean negative = i < to && bytes[i] == '-';
+            if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+                i++;
+            }
+            if (i == to) {
+                throw new NumberFormatException("For input string: \"" + text() + "\"");
+            }
+            long value = 0;
+            for (; i < to; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("For input string: \"" + text() + "\"");
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+    }
+
+    private abstract static class Batch {
+        abstract void parse(Lines lines) throws IOException;
+
+        abstract void link(SnapshotLoader loader);
+    }
+
+    private static class AirportBatch extends Batch {
+        private List<String> airports = new ArrayList<>();
+        private List<String> airplanes = new ArrayList<>();
+        private List<int[]> airplaneDetails = new ArrayList<>();
+
+        @Override
+        void parse(Lines lines) throws IOException {
+            while (lines.next()) {
+                if (lines.isIndented()) {
+                    airplanes.add(lines.text());
+                    int seatCount = lines.require().intValue();
+                    int range = lines.require().intValue();
+                    airplaneDetails.add(new int[]{seatCount, range, airports.size() - 1});
+                } else {
+                    airports.add(lines.text());
+                }
+            }
+        }
+
+        @Override
+        void link(SnapshotLoader loader) {
+            for (String airportName : airports) {
+                loader.airport.loadAirport(airportName);
+            }
+            for (int i = 0; i < airplanes.size(); i++) {
+                int[] details = airplaneDetails.get(i);
+                loader.airplane.loadAirplane(airplanes.get(i), details[0], details[1], details[2] >= 0 ? airports.get(details[2]) : null);
+            }
+        }
+    }
+
+    private static class RouteBatch extends Batch {
+        private String[] departures;
+        private String[] arrivals;
+        private int[] distances;
+        private String[] airplanes;
+        private int size;
+
+        RouteBatch(int records) {
+            departures = new String[records];
+            arrivals = new String[records];
+            distances = new int[records];
+            airplanes = new String[records];
+        }
+
+        @Override
+        void parse(Lines lines) throws IOException {
+            for (; size < departures.length && lines.next(); size++) {
+                departures[size] = lines.text();
+                arrivals[size] = lines.require().text();
+                distances[size] = lines.require().intValue();
+                airplanes[size] = lines.require().text();
+            }
+        }
+
+        @Override
+        void link(SnapshotLoader loader) {
+            for (int i = 0; i < size; i++) {
+                loader.route.loadRoute(departures[i], arrivals[i], distances[i], airplanes[i].equals("-") ? null : airplanes[i]);
+            }
+        }
+    }
+
+    private static class FlightBatch extends Batch {
+        private int[] ids;
+        private String[] names;
+        private String[] routes;
+        private LocalDateTime[] departures;
+        private LocalDateTime[] arrivals;
+        private int size;
+
+        FlightBatch(int records) {
+            ids = new int[records];
+            names = new String[records];
+            routes = new String[records];
+            departures = new LocalDateTime[records];
+            arrivals = new LocalDateTime[records];
+        }
+
+        @Override
+        void parse(Lines lines) throws IOException {
+            for (; size < ids.length && lines.next(); size++) {
+                ids[size] = lines.intValue();
+                names[size] = lines.require().text();
+                routes[size] = lines.require().text();
+                departures[size] = LocalDateTime.parse(lines.require().text(), Flight.DATE_TIME_FORMAT);
+                arrivals[size] = LocalDateTime.parse(lines.require().text(), Flight.DATE_TIME_FORMAT);
+            }
+        }
+
+        @Override
+        void link(SnapshotLoader loader) {
+            for (int i = 0; i < size; i++) {
+                loader.flight.loadFlight(ids[i], names[i], routes[i], departures[i], arrivals[i]);
+            }
+        }
+    }
+
+    private static class ClientBatch extends Batch {
+        private int[] ids;
+        private String[] names;
+        private String[] phones;
+        private boolean[] companies;
+        private int[] airplaneCounts;
+        private int size;
+
+        ClientBatch(int records) {
+            ids = new int[records];
+            names = new String[records];
+            phones = new String[records];
+            companies = new boolean[records];
+            airplaneCounts = new int[records];
+        }
+
+        @Override
+        void parse(Lines lines) throws IOException {
+            for (; size < ids.length && lines.next(); size++) {
+                ids[size] = lines.intValue();
+                names[size] = lines.require().text();
+                phones[size] = lines.require().text();
+                companies[size] = Boolean.parseBoolean(lines.require().text());
+                airplaneCounts[size] = lines.require().intValue();
+            }
+        }
+
+        @Override
+        void link(SnapshotLoader loader) {
+            for (int i = 0; i < size; i++) {
+                loader.clients.loadClient(ids[i], names[i], phones[i], companies[i], airplaneCounts[i]);
+            }
+        }
+    }
+
+    private static class TicketBatch extends Batch {
+        private int[] flightIds;
+        private int[] clientIds;
+        private String[] seats;
+        private long[] prices;
+        private long[] bookedAt;
+        private long[] numbers;
+        private int size;
+
+        TicketBatch(int records) {
+            flightIds = new int[records];
+            clientIds = new int[records];
+            seats = new String[records];
+            prices = new long[records];
+            bookedAt = new long[records];
+            numbers = new long[records];
+        }
+
+        @Override
+        void parse(Lines lines) throws IOException {
+            for (; size < flightIds.length && lines.next(); size++) {
+                flightIds[size] = lines.intValue();
+                clientIds[size] = lines.require().intValue();
+                String seat = lines.require().text();
+                seats[size] = seat.equals("-") ? null : seat;
+                prices[size] = lines.require().longValue();
+                bookedAt[size] = lines.require().longValue();
+                numbers[size] = lines.require().longValue();
+            }
+        }
+
+        @Override
+        void link(SnapshotLoader loader) {
+            for (int i = 0; i < size; i++) {
+                Client client = loader.clients.getClient(clientIds[i]);
+                if (client != null && loader.flight.getFlightDetails(flightIds[i]) != null) {
+                    loader.bookingEngine.restoreTicket(numbers[i], flightIds[i], client, seats[i], prices[i], bookedAt[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package airline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+class Statistics {
+    private static final Comparator<RouteTotal> BY_PASSENGERS = Comparator.comparingLong(RouteTotal::getPassengers)
+            .thenComparingLong(RouteTotal::getRevenue).thenComparing(RouteTotal::getRoute, Comparator.reverseOrder());
+
+    private Airplane airplane;
+    private Flight flight;
+    private Map<Integer, FlightCounter> flights;
+    private Map<String, RouteCounter> routes;
+    private Map<String, Counter> departures;
+    private Counter total;
+    private List<RouteCounter> leaders;
+    private int leaderLimit;
+    private volatile long threshold;
+    private volatile boolean leadersStale;
+    private volatile boolean ranking;
+
+    public Statistics(Airplane airplane, Flight flight, BookingEngine bookingEngine) {
+        this.airplane = airplane;
+        this.flight = flight;
+        flights = new ConcurrentHashMap<>();
+        routes = new ConcurrentHashMap<>();
+        departures = new ConcurrentHashMap<>();
+        total = new Counter();
+        leaders = new ArrayList<>();
+        leadersStale = true;
+        for (Ticket ticket : bookingEngine.getTickets()) {
+            ticketBooked(ticket.getFlightId(), ticket.getPrice());
+        }
+        bookingEngine.setStatistics(this);
+    }
+
+    void ticketBooked(int flightId, long price) {
+        FlightCounter counter = getFlightCounter(flightId);
+        counter.add(price);
+        if (counter.route != null) {
+            counter.route.add(price);
+            promote(counter.route);
+        }
+        if (counter.departures != null) {
+            counter.departures.add(price);
+        }
+        total.add(price);
+    }
+
+    void ticketCancelled(int flightId, long price) {
+        FlightCounter counter = flights.get(flightId);
+        if (counter == null) {
+            return;
+        }
+        counter.remove(price);
+        if (counter.route != null) {
+            counter.route.remove(price);
+            if ((counter.route.leader || ranking) && !leadersStale) {
+                leadersStale = true;
+            }
+        }
+        if (counter.departures != null) {
+            counter.departures.remove(price);
+        }
+        total.remove(price);
+    }
+
+    void flightDeleted(int flightId) {
+        flights.remove(flightId);
+    }
+
+    public long getSold(int flightId) {
+        FlightCounter counter = flights.get(flightId);
+        return counter != null ? counter.getTickets() : 0;
+    }
+
+    public long getRevenue(int flightId) {
+        FlightCounter counter = flights.get(flightId);
+        return counter != null ? counter.getRevenue() : 0;
+    }
+
+    public int getSeatCount(int flightId) {
+        Flight.FlightDetails flightDetails = flight.getFlightDetails(flightId);
+        Airplane.AirplaneDetails airplaneDetails = flightDetails != null ? airplane.getAirplaneDetails(flightDetails.getAirplane()) : null;
+        return airplaneDetails != null ? airplaneDetails.getSeatCount() : 0;
+    }
+
+    public double getLoadFactor(int flightId) {
+        int seatCount = getSeatCount(flightId);
+        return seatCount > 0 ? (double) getSold(flightId) / seatCount : 0;
+    }
+
+    public long getPassengers(String routeName) {
+        Counter counter = routes.get(routeName);
+        return counter != null ? counter.getTickets() : 0;
+    }
+
+    public long getRouteRevenue(String routeName) {
+        Counter counter = routes.get(routeName);
+        return counter != null ? counter.getRevenue() : 0;
+    }
+
+    public long getDepartures(String airportName) {
+        Counter counter = departures.get(airportName);
+        return counter != null ? counter.getTickets() : 0;
+    }
+
+    public long getTotalTickets() {
+        return total.getTickets();
+    }
+
+    public long getTotalRevenue() {
+        return total.getRevenue();
+    }
+
+    public synchronized List<RouteTotal> getTopRoutes(int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (leadersStale || limit > leaderLimit) {
+            rank(Math.max(limit, leaderLimit));
+        }
+
+        List<RouteTotal> sorted = new ArrayList<>(leaders.size());
+        for (RouteCounter leader : leaders) {
+            sorted.add(new RouteTotal(leader.name, leader.getTickets(), leader.getRevenue()));
+        }
+        sorted.sort(BY_PASSENGERS.reversed());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    private void promote(RouteCounter route) {
+        if (leadersStale || route.leader || route.getTickets() < threshold) {
+            return;
+        }
+        synchronized (this) {
+            if (leadersStale || route.leader) {
+                return;
+            }
+            if (leaders.size() < leaderLimit) {
+                leaders.add(route);
+                route.leader = true;
+            } else {
+                RouteCounter last = null;
+                for (RouteCounter leader : leaders) {
+                    if (last == null || BY_PASSENGERS.compare(total(leader), total(last)) < 0) {
+                        last = leader;
+                    }
+                }
+                if (last == null || BY_PASSENGERS.compare(total(route), total(last)) <= 0) {
+                    return;
+                }
+                leaders.set(leaders.indexOf(last), route);
+                last.leader = false;
+                route.leader = true;
+            }
+            updateThreshold();
+        }
+    }
+
+    private void rank(int limit) {
+        leadersStale = false;
+        ranking = true;
+        for (RouteCounter leader : leaders) {
+            leader.leader = false;
+        }
+        PriorityQueue<RouteTotal> top = new PriorityQueue<>(limit + 1, BY_PASSENGERS);
+        for (RouteCounter route : routes.values()) {
+            RouteTotal routeTotal = total(route);
+            if (routeTotal.passengers <= 0) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(routeTotal);
+            } else if (BY_PASSENGERS.compare(routeTotal, top.peek()) > 0) {
+                top.poll();
+                top.add(routeTotal);
+            }
+        }
+        leaders = new ArrayList<>(top.size());
+        for (RouteTotal routeTotal : top) {
+            RouteCounter route = routes.get(routeTotal.route);
+            route.leader = true;
+            leaders.add(route);
+        }
+        leaderLimit = limit;
+        updateThreshold();
+        ranking = false;
+    }
+
+    private void updateThreshold() {
+        long lowest = Long.MAX_VALUE;
+        for (RouteCounter leader : leaders) {
+            lowest = Math.min(lowest, leader.getTickets());
+        }
+        threshold = leaders.size() < leaderLimit ? 0 : lowest;
+    }
+
+    private static RouteTotal total(RouteCounter route) {
+        return new RouteTotal(route.name, route.getTickets(), route.getRevenue());
+    }
+
+    public void clear() {
+        flights.clear();
+        routes.clear();
+        departures.clear();
+        total.reset();
+        synchronized (this) {
+            leaders = new ArrayList<>();
+            leadersStale = true;
+        }
+    }
+
+    private FlightCounter getFlightCounter(int flightId) {
+        FlightCounter counter = flights.get(flightId);
+        if (counter != null) {
+            return counter;
+        }
+        return flights.computeIfAbsent(flightId, id -> {
+            Flight.FlightDetails flightDetails = flight.getFlightDetails(id);
+            if (flightDetails == null) {
+                return new FlightCounter(null, null);
+            }
+            RouteCounter routeCounter = routes.computeIfAbsent(flightDetails.getRoute(), RouteCounter::new);
+            Counter airportCounter = flightDetails.getDepartureAirport() != null
+                    ? departures.computeIfAbsent(flightDetails.getDepartureAirport(), k -> new Counter()) : null;
+            return new FlightCounter(routeCounter, airportCounter);
+        });
+    }
+
+    private static class Counter {
+        private LongAdder tickets = new LongAdder();
+        private LongAdder revenue = new LongAdder();
+
+        void add(long price) {
+            tickets.increment();
+            revenue.add(price);
+        }
+
+        void remove(long price) {
+            tickets.decrement();
+            revenue.add(-price);
+        }
+
+        void reset() {
+            tickets.reset();
+            revenue.reset();
+        }
+
+        long getTickets() {
+            return tickets.sum();
+        }
+
+        long getRevenue() {
+            return revenue.sum();
+        }
+    }
+
+    private static class RouteCounter extends Counter {
+        private String name;
+        private volatile boolean leader;
+
+        RouteCounter(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class FlightCounter extends Counter {
+        private RouteCounter route;
+        private Counter departures;
+
+        FlightCounter(RouteCounter route, Counter departures) {
+            this.route = route;
+            this.departures = departures;
+        }
+    }
+
+    public static class RouteTotal {
+        private String route;
+        private long passengers;
+        private long revenue;
+
+        RouteTotal(String route, long passengers, long revenue) {
+            this.route = route;
+            this.passengers = passengers;
+            this.revenue = revenue;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public long getPassengers() {
+            return passengers;
+        }
+
+        public long getRevenue() {
+            return revenue;
+        }
+
+        @Override
+        public String toString() {
+            return route + " | Passengers: " + passengers + " | Revenue: " + FareEngine.format(revenue);
+        }
+    }
+}
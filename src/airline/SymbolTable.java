@@ -0,0 +1,193 @@
+package airline;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+class SymbolTable {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_ARENA_BYTES = 1 << 12;
+
+    // Readers take no lock: they read size first, and intern() publishes every grown array before it bumps size.
+    private volatile ByteBuffer arena;
+    private volatile int[] offsets;
+    private volatile int[] lengths;
+    private volatile int[] hashes;
+    private volatile String[] names;
+    private volatile int[] slots;
+    private volatile int size;
+
+    public SymbolTable() {
+        arena = ByteBuffer.allocateDirect(INITIAL_ARENA_BYTES);
+        offsets = new int[INITIAL_CAPACITY];
+        lengths = new int[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        names = new String[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY * 2];
+    }
+
+    public synchronized int intern(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int id = find(name);
+        if (id >= 0) {
+            return id;
+        }
+
+        id = size;
+        if (id == offsets.length) {
+            int capacity = id << 1;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+
+        boolean latin1 = isLatin1(name);
+        int bytes = latin1 ? name.length() : name.length() * 2;
+        ensureArena(bytes);
+        offsets[id] = arena.position();
+        lengths[id] = latin1 ? name.length() : ~name.length();
+        for (int i = 0; i < name.length(); i++) {
+            if (latin1) {
+                arena.put((byte) name.charAt(i));
+            } else {
+                arena.putChar(name.charAt(i));
+            }
+        }
+        hashes[id] = name.hashCode();
+        names[id] = decode(id);
+
+        if ((id + 1) * 2 > slots.length) {
+            rehash(slots.length << 1, id + 1);
+        } else {
+            insert(slots, id);
+        }
+        size = id + 1;
+        return id;
+    }
+
+    public String canonical(String name) {
+        return name(intern(name));
+    }
+
+    public int find(String name) {
+        if (name == null) {
+            return -1;
+        }
+        int count = size;
+        int[] table = slots;
+        int[] hashes = this.hashes;
+        int mask = table.length - 1;
+        int hash = name.hashCode();
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int id = entry - 1;
+            if (id < count && hashes[id] == hash && matches(id, name)) {
+                return id;
+            }
+        }
+    }
+
+    public String name(int id) {
+        return id >= 0 && id < size ? names[id] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public synchronized long getArenaBytes() {
+        return arena.position();
+    }
+
+    private boolean matches(int id, String name) {
+        ByteBuffer arena = this.arena;
+        int length = lengths[id];
+        int offset = offsets[id];
+        if (length >= 0) {
+            if (length != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if ((arena.get(offset + i) & 0xFF) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (~length != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (arena.getChar(offset + i * 2) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int id) {
+        ByteBuffer arena = this.arena;
+        int length = lengths[id];
+        int offset = offsets[id];
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            arena.get(offset, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        char[] chars = new char[~length];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = arena.getChar(offset + i * 2);
+        }
+        return new String(chars);
+    }
+
+    private void ensureArena(int bytes) {
+        if (arena.remaining() >= bytes) {
+            return;
+        }
+        int capacity = arena.capacity();
+        while (capacity - arena.position() < bytes) {
+            capacity <<= 1;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        arena.flip();
+        grown.put(arena);
+        arena = grown;
+    }
+
+    private void rehash(int capacity, int count) {
+        int[] table = new int[capacity];
+        for (int id = 0; id < count; id++) {
+            insert(table, id);
+        }
+        slots = table;
+    }
+
+    private void insert(int[] table, int id) {
+        int mask = table.length - 1;
+        int slot = mix(hashes[id]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id + 1;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isLatin1(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package airline;
+
+class Ticket {
+    private long number;
+    private int flightId;
+    private Client client;
+    private String seat;
+    private long price;
+    private long bookedAt;
+
+    public Ticket(long number, int flightId, Client client, String seat, long price, long bookedAt) {
+        this.number = number;
+        this.flightId = flightId;
+        this.client = client;
+        this.seat = seat;
+        this.price = price;
+        this.bookedAt = bookedAt;
+    }
+
+    public long getNumber() {
+        return number;
+    }
+
+    public int getFlightId() {
+        return flightId;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public String getSeat() {
+        return seat;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getBookedAt() {
+        return bookedAt;
+    }
+}
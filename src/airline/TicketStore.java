@@ -0,0 +1,356 @@
+package airline;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class TicketStore {
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_POSTINGS = 4;
+
+    private volatile Chunk[] chunks;
+    private AtomicInteger rows;
+    private AtomicInteger live;
+    private Map<Integer, Postings> clientPostings;
+    private Map<Integer, Postings> flightPostings;
+
+    public TicketStore() {
+        chunks = new Chunk[0];
+        rows = new AtomicInteger();
+        live = new AtomicInteger();
+        clientPostings = new ConcurrentHashMap<>();
+        flightPostings = new ConcurrentHashMap<>();
+    }
+
+    public Ticket add(int flightId, Client client, String seat, long price, long bookedAt) {
+        return store(rows.getAndIncrement(), flightId, client, seat, price, bookedAt);
+    }
+
+    public Ticket restore(long number, int flightId, Client client, String seat, long price, long bookedAt) {
+        if (number <= 0) {
+            return add(flightId, client, seat, price, bookedAt);
+        }
+        int row = Math.toIntExact(number - 1);
+        rows.accumulateAndGet(row + 1, Math::max);
+        return store(row, flightId, client, seat, price, bookedAt);
+    }
+
+    public boolean contains(long number) {
+        if (number < 1 || number > rows.get()) {
+            return false;
+        }
+        int row = (int) (number - 1);
+        Chunk chunk = findChunk(row);
+        return chunk != null && chunk.isLive(row & CHUNK_MASK);
+    }
+
+    private Ticket store(int row, int flightId, Client client, String seat, long price, long bookedAt) {
+        Chunk chunk = chunk(row);
+        int index = row & CHUNK_MASK;
+        chunk.flightIds[index] = flightId;
+        chunk.clientIds[index] = client.getId();
+        chunk.bookedAt[index] = bookedAt;
+        chunk.seats[index] = SeatMap.encode(seat);
+        chunk.prices[index] = price;
+        chunk.setLive(index, true);
+        live.incrementAndGet();
+
+        getClientPostings(client).addRow(row);
+        flightPostings.computeIfAbsent(flightId, id -> new Postings(this, null)).addRow(row);
+        return new Ticket(row + 1L, flightId, client, seat, price, bookedAt);
+    }
+
+    public List<Ticket> cancel(Client client) {
+        Postings postings = client.getPostings();
+        if (postings == null) {
+            return Collections.emptyList();
+        }
+
+        int[] clientRows = postings.drain();
+        clientPostings.remove(client.getId(), postings);
+        client.attachPostings(null);
+        List<Ticket> cancelled = new ArrayList<>(clientRows.length);
+        for (int row : clientRows) {
+            Chunk chunk = findChunk(row);
+            int index = row & CHUNK_MASK;
+            if (!chunk.setLive(index, false)) {
+                continue;
+            }
+            live.decrementAndGet();
+            Postings flightRows = flightPostings.get(chunk.flightIds[index]);
+            if (flightRows != null) {
+                flightRows.removeRow(row);
+            }
+            cancelled.add(materialize(chunk, index, row, client));
+        }
+        return cancelled;
+    }
+
+    public List<Ticket> cancel(int flightId) {
+        Postings postings = flightPostings.remove(flightId);
+        if (postings == null) {
+            return Collections.emptyList();
+        }
+
+        int[] flightRows = postings.drain();
+        List<Ticket> cancelled = new ArrayList<>(flightRows.length);
+        for (int row : flightRows) {
+            Chunk chunk = findChunk(row);
+            int index = row & CHUNK_MASK;
+            if (!chunk.setLive(index, false)) {
+                continue;
+            }
+            live.decrementAndGet();
+            Postings clientRows = clientPostings.get(chunk.clientIds[index]);
+            if (clientRows != null) {
+                clientRows.removeRow(row);
+            }
+            cancelled.add(materialize(chunk, index, row, clientRows != null ? clientRows.client : null));
+        }
+        return cancelled;
+    }
+
+    public void setSeat(long number, String seat) {
+        int row = (int) (number - 1);
+        findChunk(row).seats[row & CHUNK_MASK] = SeatMap.encode(seat);
+    }
+
+    public Ticket get(long number) {
+        if (!contains(number)) {
+            return null;
+        }
+        int row = (int) (number - 1);
+        return materialize(findChunk(row), row & CHUNK_MASK, row, null);
+    }
+
+    public List<Ticket> getTickets(int flightId) {
+        Postings postings = flightPostings.get(flightId);
+        return postings != null ? postings : Collections.emptyList();
+    }
+
+    public long getRevenue(int flightId) {
+        Postings postings = flightPostings.get(flightId);
+        return postings != null ? postings.sumPrices() : 0;
+    }
+
+    public int size() {
+        return live.get();
+    }
+
+    public Collection<Ticket> getTickets() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Ticket> iterator() {
+                return new RowIterator(rows.get());
+            }
+
+            @Override
+            public int size() {
+                return live.get();
+            }
+        };
+    }
+
+    public void clear() {
+        for (Postings postings : clientPostings.values()) {
+            postings.client.attachPostings(null);
+        }
+        chunks = new Chunk[0];
+        rows.set(0);
+        live.set(0);
+        clientPostings.clear();
+        flightPostings.clear();
+    }
+
+    private Postings getClientPostings(Client client) {
+        Postings postings = client.getPostings();
+        if (postings != null) {
+            return postings;
+        }
+        synchronized (client) {
+            postings = client.getPostings();
+            if (postings == null) {
+                postings = new Postings(this, client);
+                clientPostings.put(client.getId(), postings);
+                client.attachPostings(postings);
+            }
+            return postings;
+        }
+    }
+
+    private Chunk chunk(int row) {
+        Chunk chunk = findChunk(row);
+        if (chunk != null) {
+            return chunk;
+        }
+        synchronized (this) {
+            chunk = findChunk(row);
+            if (chunk == null) {
+                int chunkIndex = row >>> CHUNK_BITS;
+                Chunk[] grown = Arrays.copyOf(chunks, Math.max(chunkIndex + 1, chunks.length));
+                chunk = new Chunk();
+                grown[chunkIndex] = chunk;
+                chunks = grown;
+            }
+            return chunk;
+        }
+    }
+
+    private Chunk findChunk(int row) {
+        Chunk[] current = chunks;
+        return row >>> CHUNK_BITS < current.length ? current[row >>> CHUNK_BITS] : null;
+    }
+
+    private Ticket materialize(Chunk chunk, int index, int row, Client client) {
+        if (client == null) {
+            Postings postings = clientPostings.get(chunk.clientIds[index]);
+            client = postings != null ? postings.client : null;
+        }
+        return new Ticket(row + 1L, chunk.flightIds[index], client, SeatMap.decode(chunk.seats[index]), chunk.prices[index], chunk.bookedAt[index]);
+    }
+
+    private class RowIterator implements Iterator<Ticket> {
+        private int end;
+        private int next;
+
+        RowIterator(int end) {
+            this.end = end;
+            advance(0);
+        }
+
+        private void advance(int from) {
+            next = from;
+            while (next < end) {
+                Chunk chunk = findChunk(next);
+                if (chunk == null) {
+                    next = (next | CHUNK_MASK) + 1;
+                } else if (chunk.isLive(next & CHUNK_MASK)) {
+                    return;
+                } else {
+                    next++;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public Ticket next() {
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            int row = next;
+            advance(row + 1);
+            return materialize(findChunk(row), row & CHUNK_MASK, row, null);
+        }
+    }
+
+    private static class Chunk {
+        private int[] flightIds = new int[CHUNK_SIZE];
+        private int[] clientIds = new int[CHUNK_SIZE];
+        private long[] bookedAt = new long[CHUNK_SIZE];
+        private int[] seats = new int[CHUNK_SIZE];
+        private long[] prices = new long[CHUNK_SIZE];
+        private AtomicLongArray live = new AtomicLongArray(CHUNK_SIZE >>> 6);
+
+        boolean isLive(int index) {
+            return (live.get(index >>> 6) & (1L << index)) != 0;
+        }
+
+        boolean setLive(int index, boolean value) {
+            long bit = 1L << index;
+            while (true) {
+                long current = live.get(index >>> 6);
+                if (((current & bit) != 0) == value) {
+                    return false;
+                }
+                if (live.compareAndSet(index >>> 6, current, current ^ bit)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    static class Postings extends AbstractList<Ticket> implements RandomAccess {
+        private TicketStore store;
+        private Client client;
+        private int[] rows;
+        private int size;
+
+        Postings(TicketStore store, Client client) {
+            this.store = store;
+            this.client = client;
+            rows = new int[INITIAL_POSTINGS];
+        }
+
+        synchronized void addRow(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length << 1);
+            }
+            rows[size++] = row;
+        }
+
+        synchronized void removeRow(int row) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (rows[i] == row) {
+                    System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        synchronized long sumPrices() {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += store.findChunk(rows[i]).prices[rows[i] & CHUNK_MASK];
+            }
+            return sum;
+        }
+
+        synchronized int[] drain() {
+            int[] drained = Arrays.copyOf(rows, size);
+            rows = new int[INITIAL_POSTINGS];
+            size = 0;
+            return drained;
+        }
+
+        @Override
+        public synchronized Ticket get(int index) {
+            Objects.checkIndex(index, size);
+            int row = rows[index];
+            return store.materialize(store.findChunk(row), row & CHUNK_MASK, row, client);
+        }
+
+        @Override
+        public synchronized int size() {
+            return size;
+        }
+
+        @Override
+        public synchronized Object[] toArray() {
+            Object[] tickets = new Object[size];
+            for (int i = 0; i < size; i++) {
+                tickets[i] = get(i);
+            }
+            return tickets;
+        }
+    }
+}
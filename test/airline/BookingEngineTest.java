@@ -0,0 +1,307 @@
+package airline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookingEngineTest {
+    private static final int SEATS = 60;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 50;
+
+    private Airport airport;
+    private Airplane airplane;
+    private Route route;
+    private Flight flight;
+    private BookingEngine bookingEngine;
+    private ClientRegistry clients;
+    private int flightId;
+
+    @BeforeAll
+    static void quiet() {
+        Log.setLevel(Log.Level.OFF);
+    }
+
+    @BeforeEach
+    void setUp() {
+        airport = new Airport();
+        airplane = new Airplane(airport);
+        route = new Route(airport, airplane);
+        flight = new Flight(route);
+        bookingEngine = new BookingEngine(airplane, route, flight);
+        clients = new ClientRegistry(bookingEngine);
+        airport.loadAirport("Warszawa");
+        airport.loadAirport("Krakow");
+        airport.loadAirport("Gdansk");
+        airplane.loadAirplane("E190-1", SEATS, 4500, "Warszawa");
+        String routeName = route.loadRoute("Warszawa", "Krakow", 250, "E190-1");
+        LocalDateTime departure = LocalDateTime.of(2024, 5, 1, 10, 0);
+        flightId = flight.loadFlight(1, "LO1", routeName, departure, departure.plusHours(1)).getId();
+    }
+
+    @Test
+    void concurrentBookingsNeverExceedCapacity() throws Exception {
+        List<Client> passengers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            passengers.add(clients.loadClient("Passenger " + i, "+48" + i, false, 0));
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Client client : passengers) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS; i++) {
+                        if (bookingEngine.book(flightId, client) != null) {
+                            booked.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int capacity = bookingEngine.getCapacity(flightId);
+        assertEquals(SEATS, capacity);
+        assertTrue(bookingEngine.getSoldSeats(flightId) <= capacity);
+        assertEquals(capacity, booked.get());
+        assertEquals(capacity, bookingEngine.getSoldSeats(flightId));
+        assertEquals(0, bookingEngine.getAvailableSeats(flightId));
+
+        Set<String> seats = new HashSet<>();
+        for (Ticket ticket : bookingEngine.getTickets(flightId)) {
+            assertNotNull(ticket.getSeat());
+            assertTrue(seats.add(ticket.getSeat()), "seat " + ticket.getSeat() + " sold twice");
+        }
+        assertEquals(capacity, seats.size());
+    }
+
+    @Test
+    void deletingFlightCancelsItsTickets() {
+        Statistics statistics = new Statistics(airplane, flight, bookingEngine);
+        Client client = clients.loadClient("Maksim", "452378774", false, 0);
+        LocalDateTime departure = LocalDateTime.of(2024, 5, 2, 10, 0);
+        int otherFlightId = flight.loadFlight(2, "LO2", "Warszawa - Krakow", departure, departure.plusHours(1)).getId();
+        bookingEngine.book(flightId, client);
+        bookingEngine.book(flightId, client);
+        bookingEngine.book(otherFlightId, client);
+
+        assertEquals(Result.OK, flight.deleteFlight(flightId));
+
+        assertTrue(bookingEngine.getTickets(flightId).isEmpty());
+        assertEquals(0, bookingEngine.getSoldSeats(flightId));
+        assertEquals(1, bookingEngine.getTickets().size());
+        assertEquals(1, client.getTickets().size());
+        assertEquals(otherFlightId, client.getTickets().get(0).getFlightId());
+        assertEquals(1, statistics.getTotalTickets());
+        assertEquals(1, statistics.getPassengers("Warszawa - Krakow"));
+        assertEquals(0, statistics.getSold(flightId));
+    }
+
+    @Test
+    void deletingRouteCancelsTicketsOfItsFlights() {
+        Statistics statistics = new Statistics(airplane, flight, bookingEngine);
+        Client client = clients.loadClient("Maksim", "452378774", false, 0);
+        bookingEngine.book(flightId, client);
+
+        assertEquals(Result.OK, route.deleteRoute("Warszawa - Krakow"));
+
+        assertTrue(bookingEngine.getTickets().isEmpty());
+        assertTrue(client.getTickets().isEmpty());
+        assertEquals(0, statistics.getTotalTickets());
+    }
+
+    @Test
+    void topRoutesFollowBookingsAndCancellations() {
+        Statistics statistics = new Statistics(airplane, flight, bookingEngine);
+        airplane.loadAirplane("E190-2", SEATS, 4500, "Warszawa");
+        airplane.loadAirplane("E190-3", SEATS, 4500, "Krakow");
+        LocalDateTime departure = LocalDateTime.of(2024, 5, 1, 12, 0);
+        int gdanskFlightId = flight.loadFlight(2, "LO2", route.loadRoute("Warszawa", "Gdansk", 300, "E190-2"), departure, departure.plusHours(1)).getId();
+        int krakowFlightId = flight.loadFlight(3, "LO3", route.loadRoute("Krakow", "Gdansk", 400, "E190-3"), departure, departure.plusHours(1)).getId();
+        Client client = clients.loadClient("Maksim", "452378774", false, 0);
+        bookSeats(flightId, client, 3);
+        bookSeats(gdanskFlightId, client, 2);
+        bookSeats(krakowFlightId, client, 1);
+
+        assertEquals(List.of("Warszawa - Krakow", "Warszawa - Gdansk"), topRouteNames(statistics.getTopRoutes(2)));
+
+        bookSeats(krakowFlightId, client, 3);
+        assertEquals(List.of("Krakow - Gdansk", "Warszawa - Krakow"), topRouteNames(statistics.getTopRoutes(2)));
+        assertEquals(List.of("Krakow - Gdansk"), topRouteNames(statistics.getTopRoutes(1)));
+        assertEquals(4, statistics.getTopRoutes(1).get(0).getPassengers());
+
+        assertEquals(Result.OK, flight.deleteFlight(krakowFlightId));
+        assertEquals(List.of("Warszawa - Krakow", "Warszawa - Gdansk"), topRouteNames(statistics.getTopRoutes(2)));
+
+        bookSeats(gdanskFlightId, client, 3);
+        assertEquals(List.of("Warszawa - Gdansk", "Warszawa - Krakow"), topRouteNames(statistics.getTopRoutes(3)));
+    }
+
+    private void bookSeats(int flightId, Client client, int count) {
+        for (int i = 0; i < count; i++) {
+            assertNotNull(bookingEngine.book(flightId, client));
+        }
+    }
+
+    private static List<String> topRouteNames(List<Statistics.RouteTotal> routeTotals) {
+        List<String> names = new ArrayList<>();
+        for (Statistics.RouteTotal routeTotal : routeTotals) {
+            names.add(routeTotal.getRoute());
+        }
+        return names;
+    }
+
+    @Test
+    void assigningAirplaneRejectsSharedOrTooSmallAirplanes() {
+        airplane.loadAirplane("E190-2", SEATS, 4500, "Warszawa");
+        airplane.loadAirplane("ATR-1", 10, 4500, "Warszawa");
+        Client client = clients.loadClient("Maksim", "452378774", false, 0);
+        for (int i = 0; i < 20; i++) {
+            bookingEngine.book(flightId, client);
+        }
+        String otherRoute = route.loadRoute("Warszawa", "Gdansk", 300, "E190-2");
+
+        assertFalse(route.assignAirplane("Warszawa - Krakow", "E190-2"));
+        assertFalse(route.assignAirplane("Warszawa - Krakow", "ATR-1"));
+        assertTrue(route.assignAirplane("Warszawa - Krakow", "E190-1"));
+        assertTrue(route.releaseAirplane(otherRoute));
+        assertTrue(route.assignAirplane("Warszawa - Krakow", "E190-2"));
+        assertEquals("E190-2", route.getAirplane("Warszawa - Krakow"));
+    }
+
+    @Test
+    void reloadedRoutesCanBeReassigned() {
+        route.clear();
+        String routeName = route.loadRoute("Warszawa", "Krakow", 250, "E190-1");
+
+        assertTrue(route.assignAirplane(routeName, "E190-1"));
+        assertTrue(route.releaseAirplane(routeName));
+        assertTrue(route.assignAirplane(routeName, "E190-1"));
+        assertEquals("E190-1", route.getAirplane(routeName));
+    }
+
+    @Test
+    void fleetAssignmentReleasesAirplanesClaimedByOtherRoutes() {
+        airplane.loadAirplane("ATR-1", 10, 4500, "Warszawa");
+        String otherRoute = route.loadRoute("Warszawa", "Gdansk", 300, "E190-1");
+        LocalDateTime departure = LocalDateTime.of(2024, 5, 1, 18, 0);
+        int otherFlightId = flight.loadFlight(2, "LO2", otherRoute, departure, departure.plusHours(1)).getId();
+        Client client = clients.loadClient("Maksim", "452378774", false, 0);
+        for (int i = 0; i < 20; i++) {
+            bookingEngine.book(flightId, client);
+        }
+        for (int i = 0; i < 15; i++) {
+            bookingEngine.book(otherFlightId, client);
+        }
+
+        FleetAssigner fleetAssigner = new FleetAssigner(airplane, route, flight);
+        FleetAssigner.Plan plan = fleetAssigner.plan();
+        fleetAssigner.apply(plan);
+
+        assertEquals(List.of(otherRoute), plan.getUnassigned());
+        assertEquals("E190-1", route.getAirplane("Warszawa - Krakow"));
+        assertNull(route.getAirplane(otherRoute));
+        assertEquals(SEATS, bookingEngine.getCapacity(flightId));
+    }
+
+    @Test
+    void deletingAssignedAirplaneIsRejected() {
+        assertEquals(Result.CONFLICT, airplane.deleteAirplane("E190-1"));
+        assertEquals("E190-1", route.getAirplane("Warszawa - Krakow"));
+
+        assertTrue(route.releaseAirplane("Warszawa - Krakow"));
+        assertEquals(Result.OK, airplane.deleteAirplane("E190-1"));
+        assertNull(airplane.getAirplaneDetails("E190-1"));
+    }
+
+    @Test
+    void swappingAirplanesKeepsPassengersInTheirSeats() {
+        airplane.loadAirplane("A320-1", 80, 4500, "Warszawa");
+        String otherRoute = route.loadRoute("Warszawa", "Gdansk", 300, "A320-1");
+        Client client = clients.loadClient("Maksim", "452378774", false, 0);
+        Ticket ticket = bookingEngine.book(flightId, client, "3C");
+
+        assertEquals(2, route.assignAirplanes(Map.of("Warszawa - Krakow", "A320-1", otherRoute, "E190-1")));
+        assertEquals("A320-1", route.getAirplane("Warszawa - Krakow"));
+        assertEquals("E190-1", route.getAirplane(otherRoute));
+        assertEquals("3C", bookingEngine.getTicket(ticket.getNumber()).getSeat());
+        assertNull(bookingEngine.getSeatMap(flightId).claim("3C"));
+        assertEquals(80, bookingEngine.getCapacity(flightId));
+
+        assertTrue(route.releaseAirplane("Warszawa - Krakow"));
+        assertEquals("3C", bookingEngine.getTicket(ticket.getNumber()).getSeat());
+        assertTrue(route.assignAirplane("Warszawa - Krakow", "A320-1"));
+        assertEquals("3C", bookingEngine.getTicket(ticket.getNumber()).getSeat());
+    }
+
+    @Test
+    void concurrentGroupBookingsNeverExceedCapacity() throws Exception {
+        List<Client> passengers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            passengers.add(clients.loadClient("Group " + i, "+49" + i, false, 0));
+        }
+
+        AtomicInteger booked = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS / 10; i++) {
+                        List<Ticket> tickets = bookingEngine.bookGroup(flightId, passengers, null);
+                        if (tickets != null) {
+                            booked.addAndGet(tickets.size());
+                        }
+                        bookingEngine.book(flightId, passengers.get(0));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int capacity = bookingEngine.getCapacity(flightId);
+        assertTrue(bookingEngine.getSoldSeats(flightId) <= capacity);
+        assertTrue(booked.get() <= bookingEngine.getSoldSeats(flightId));
+        assertEquals(bookingEngine.getSoldSeats(flightId), bookingEngine.getTickets(flightId).size());
+        Set<String> seats = new HashSet<>();
+        for (Ticket ticket : bookingEngine.getTickets(flightId)) {
+            assertTrue(seats.add(ticket.getSeat()), "seat " + ticket.getSeat() + " sold twice");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package airline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionSearchTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    private Route route;
+    private Flight flight;
+    private ConnectionSearch connectionSearch;
+    private int nextFlightId = 1;
+
+    @BeforeAll
+    static void quiet() {
+        Log.setLevel(Log.Level.OFF);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Airport airport = new Airport();
+        Airplane airplane = new Airplane(airport);
+        route = new Route(airport, airplane);
+        flight = new Flight(route);
+        BookingEngine bookingEngine = new BookingEngine(airplane, route, flight);
+        connectionSearch = new ConnectionSearch(flight, bookingEngine);
+        for (String airportName : new String[]{"A", "B", "C"}) {
+            airport.loadAirport(airportName);
+            airplane.loadAirplane("Plane " + airportName, 100, 5000, airportName);
+        }
+        route.loadRoute("A", "B", 1000, "Plane A");
+        route.loadRoute("A", "C", 500, "Plane A");
+        route.loadRoute("C", "B", 500, "Plane C");
+    }
+
+    private void addFlight(String name, String routeName, int departureHour, int arrivalHour) {
+        flight.loadFlight(nextFlightId++, name, routeName, DAY.plusHours(departureHour), DAY.plusHours(arrivalHour));
+    }
+
+    private static List<String> names(ConnectionSearch.Journey journey) {
+        List<String> names = new ArrayList<>();
+        for (Flight.FlightDetails flightDetails : journey.getFlights()) {
+            names.add(flightDetails.getName());
+        }
+        return names;
+    }
+
+    @Test
+    void fewestTransfersPicksEarliestArrivalAmongDirectFlights() {
+        addFlight("X", "A - B", 10, 20);
+        addFlight("Y", "A - B", 11, 12);
+
+        ConnectionSearch.Journey journey = connectionSearch.fewestTransfers("A", "B", DAY.plusHours(9), 1);
+
+        assertNotNull(journey);
+        assertEquals(List.of("Y"), names(journey));
+    }
+
+    @Test
+    void fewestTransfersPrefersLaterDirectFlightOverEarlierConnection() {
+        addFlight("AC", "A - C", 8, 9);
+        addFlight("CB", "C - B", 10, 11);
+        addFlight("AB", "A - B", 13, 15);
+
+        assertEquals(List.of("AC", "CB"), names(connectionSearch.earliestArrival("A", "B", DAY.plusHours(7), 1)));
+        assertEquals(List.of("AB"), names(connectionSearch.fewestTransfers("A", "B", DAY.plusHours(7), 1)));
+    }
+
+    @Test
+    void fewestTransfersPicksEarliestArrivalAmongConnections() {
+        addFlight("AC1", "A - C", 8, 9);
+        addFlight("CB1", "C - B", 10, 18);
+        addFlight("CB2", "C - B", 11, 12);
+
+        assertEquals(List.of("AC1", "CB2"), names(connectionSearch.fewestTransfers("A", "B", DAY.plusHours(7), 1)));
+    }
+
+    @Test
+    void noJourneyBeforeFirstDeparture() {
+        addFlight("X", "A - B", 10, 20);
+
+        assertNull(connectionSearch.fewestTransfers("A", "B", DAY.plusHours(11), 1));
+    }
+}
@@ -0,0 +1,100 @@
+package airline;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalTest {
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void quiet() {
+        Log.setLevel(Log.Level.OFF);
+    }
+
+    @Test
+    void replayReturnsRecordsInOrder() throws IOException {
+        Path path = directory.resolve("data.journal");
+        Journal journal = new Journal(path.toString(), 100);
+        journal.record(Journal.CREATE_AIRPORT, "Warszawa");
+        journal.record(Journal.CREATE_AIRPORT, "Tab\\tand\nnewline");
+        journal.sync();
+        journal.close();
+
+        List<String[]> records = replay(path, 0);
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[]{Journal.CREATE_AIRPORT, "Warszawa"}, records.get(0));
+        assertArrayEquals(new String[]{Journal.CREATE_AIRPORT, "Tab\\tand\nnewline"}, records.get(1));
+        assertEquals(1, replay(path, 1).size());
+    }
+
+    @Test
+    void tornTailIsTruncatedBeforeNewAppends() throws IOException {
+        Path path = directory.resolve("data.journal");
+        Journal journal = new Journal(path.toString(), 100);
+        journal.record(Journal.CREATE_AIRPORT, "Warszawa");
+        journal.record(Journal.CREATE_AIRPORT, "Krakow");
+        journal.sync();
+        journal.close();
+        long intact = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 5);
+        }
+
+        journal = new Journal(path.toString(), 100);
+        List<String[]> records = new ArrayList<>();
+        assertEquals(1, journal.replay(0, records::add));
+        assertEquals(1, journal.getLastSequence());
+        journal.record(Journal.CREATE_AIRPORT, "Gdansk");
+        journal.sync();
+        journal.close();
+
+        records = replay(path, 0);
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[]{Journal.CREATE_AIRPORT, "Warszawa"}, records.get(0));
+        assertArrayEquals(new String[]{Journal.CREATE_AIRPORT, "Gdansk"}, records.get(1));
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(2, lines.size());
+        assertEquals("2", lines.get(1).split("\t")[0]);
+    }
+
+    @Test
+    void damagedRecordDiscardsTheRestOfTheJournal() throws IOException {
+        Path path = directory.resolve("data.journal");
+        Journal journal = new Journal(path.toString(), 100);
+        journal.record(Journal.CREATE_AIRPORT, "Warszawa");
+        journal.record(Journal.CREATE_AIRPORT, "Krakow");
+        journal.record(Journal.CREATE_AIRPORT, "Gdansk");
+        journal.sync();
+        journal.close();
+        List<String> lines = new ArrayList<>(Files.readAllLines(path));
+        lines.set(1, lines.get(1).replace("Krakow", "Krakuw"));
+        Files.write(path, lines);
+
+        journal = new Journal(path.toString(), 100);
+        assertEquals(1, journal.replay(0, record -> { }));
+        assertEquals(1, journal.getLastSequence());
+        journal.close();
+        assertEquals(1, Files.readAllLines(path).size());
+    }
+
+    private static List<String[]> replay(Path path, long afterSequence) throws IOException {
+        Journal journal = new Journal(path.toString(), 100);
+        List<String[]> records = new ArrayList<>();
+        journal.replay(afterSequence, records::add);
+        journal.close();
+        return records;
+    }
+}
@@ -0,0 +1,181 @@
+package airline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SnapshotRoundTripTest {
+    private static final int TICKETS = 3000;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void quiet() {
+        Log.setLevel(Log.Level.OFF);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"txt", "parallel", "bin"})
+    void roundTripKeepsEveryEntity(String reader) throws IOException {
+        Dataset original = new Dataset();
+        DataGenerator.generate(TICKETS, 42, original.airport, original.airplane, original.route, original.flight, original.clients, original.bookingEngine);
+        Path snapshot = directory.resolve("snapshot." + (reader.equals("bin") ? "bin" : "txt"));
+        Main.writeSnapshot(snapshot.toString(), original.airport, original.airplane, original.route, original.flight, original.clients, original.bookingEngine, 7);
+
+        Dataset loaded = new Dataset();
+        long sequence = reader.equals("parallel")
+                ? SnapshotLoader.read(snapshot, loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine)
+                : Main.readSnapshot(snapshot.toString(), loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine);
+
+        assertEquals(7, sequence);
+        assertSameData(original, loaded);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"txt", "parallel", "bin"})
+    void ticketNumbersSurviveCancellationsAndReload(String reader) throws IOException {
+        Dataset original = new Dataset();
+        DataGenerator.generate(TICKETS, 42, original.airport, original.airplane, original.route, original.flight, original.clients, original.bookingEngine);
+        Ticket first = original.bookingEngine.getTickets().iterator().next();
+        original.flight.deleteFlight(first.getFlightId());
+        Flight.FlightDetails remaining = original.flight.getFlights().iterator().next();
+        Client client = original.clients.getClients().iterator().next();
+        Ticket expensive = original.bookingEngine.restoreTicket(remaining.getId(), client, null, 5_000_000_000L, 0);
+        Path snapshot = directory.resolve("cancelled." + (reader.equals("bin") ? "bin" : "txt"));
+        Main.writeSnapshot(snapshot.toString(), original.airport, original.airplane, original.route, original.flight, original.clients, original.bookingEngine, 0);
+
+        Dataset loaded = new Dataset();
+        if (reader.equals("parallel")) {
+            SnapshotLoader.read(snapshot, loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine);
+        } else {
+            Main.readSnapshot(snapshot.toString(), loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine);
+        }
+
+        assertSameData(original, loaded);
+        assertNull(loaded.bookingEngine.getTicket(first.getNumber()));
+        assertEquals(5_000_000_000L, loaded.bookingEngine.getTicket(expensive.getNumber()).getPrice());
+    }
+
+    @Test
+    void loadsBaselineLayoutWithoutFormatHeader() throws IOException {
+        Dataset loaded = new Dataset();
+        long sequence = Main.readSnapshot(Paths.get("data.txt").toString(), loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine);
+
+        assertEquals(0, sequence);
+        assertEquals(List.of("Warszawa", "Portu"), new ArrayList<>(loaded.airport.getAirports()));
+        assertEquals("Warszawa", loaded.airplane.getAirplaneDetails("Boing").getAirportName());
+        assertEquals("Portu", loaded.airplane.getAirplaneDetails("Sonata").getAirportName());
+        assertEquals(List.of("Warszawa - Portu"), loaded.route.getRoutes());
+        assertEquals(300, loaded.route.getDistance("Warszawa - Portu"));
+        assertNull(loaded.route.getAirplane("Warszawa - Portu"));
+
+        Flight.FlightDetails flightDetails = loaded.flight.getFlightDetails(1);
+        assertNotNull(flightDetails);
+        assertEquals("1", flightDetails.getName());
+        assertEquals("Warszawa - Portu", flightDetails.getRoute());
+        assertEquals(LocalDateTime.of(2023, 3, 19, 14, 45), flightDetails.getDeparture());
+        assertEquals(LocalDateTime.of(2023, 3, 20, 15, 39), flightDetails.getArrival());
+
+        Client client = loaded.clients.findByName("Maksim");
+        assertNotNull(client);
+        assertEquals("452378774", client.getPhone());
+        assertEquals(1, client.getTickets().size());
+        assertEquals(1, client.getTickets().get(0).getFlightId());
+    }
+
+    @Test
+    void migratedBaselineRoundTrips() throws IOException {
+        Dataset legacy = new Dataset();
+        Main.readSnapshot(Paths.get("data.txt").toString(), legacy.airport, legacy.airplane, legacy.route, legacy.flight, legacy.clients, legacy.bookingEngine);
+        Path snapshot = directory.resolve("migrated.txt");
+        Main.writeSnapshot(snapshot.toString(), legacy.airport, legacy.airplane, legacy.route, legacy.flight, legacy.clients, legacy.bookingEngine, 0);
+
+        Dataset loaded = new Dataset();
+        Main.readSnapshot(snapshot.toString(), loaded.airport, loaded.airplane, loaded.route, loaded.flight, loaded.clients, loaded.bookingEngine);
+        assertSameData(legacy, loaded);
+    }
+
+    static void assertSameData(Dataset expected, Dataset actual) {
+        assertEquals(new ArrayList<>(expected.airport.getAirports()), new ArrayList<>(actual.airport.getAirports()));
+
+        assertEquals(expected.airplane.getAirplanes().size(), actual.airplane.getAirplanes().size());
+        for (Airplane.AirplaneDetails airplaneDetails : expected.airplane.getAirplanes()) {
+            Airplane.AirplaneDetails loaded = actual.airplane.getAirplaneDetails(airplaneDetails.getName());
+            assertNotNull(loaded, airplaneDetails.getName());
+            assertEquals(airplaneDetails.getSeatCount(), loaded.getSeatCount());
+            assertEquals(airplaneDetails.getRange(), loaded.getRange());
+            assertEquals(airplaneDetails.getAirportName(), loaded.getAirportName());
+        }
+
+        assertEquals(expected.route.getRoutes(), actual.route.getRoutes());
+        for (String routeName : expected.route.getRoutes()) {
+            assertEquals(expected.route.getDistance(routeName), actual.route.getDistance(routeName));
+            assertEquals(expected.route.getDepartureAirport(routeName), actual.route.getDepartureAirport(routeName));
+            assertEquals(expected.route.getArrivalAirport(routeName), actual.route.getArrivalAirport(routeName));
+            assertEquals(expected.route.getAirplane(routeName), actual.route.getAirplane(routeName));
+        }
+
+        assertEquals(expected.flight.getFlights().size(), actual.flight.getFlights().size());
+        for (Flight.FlightDetails flightDetails : expected.flight.getFlights()) {
+            Flight.FlightDetails loaded = actual.flight.getFlightDetails(flightDetails.getId());
+            assertNotNull(loaded, flightDetails.toString());
+            assertEquals(flightDetails.getName(), loaded.getName());
+            assertEquals(flightDetails.getRoute(), loaded.getRoute());
+            assertEquals(flightDetails.getDeparture(), loaded.getDeparture());
+            assertEquals(flightDetails.getArrival(), loaded.getArrival());
+            assertEquals(flightDetails.getAirplane(), loaded.getAirplane());
+        }
+
+        assertEquals(expected.clients.size(), actual.clients.size());
+        for (Client client : expected.clients.getClients()) {
+            Client loaded = actual.clients.getClient(client.getId());
+            assertNotNull(loaded, client.toString());
+            assertEquals(client.getName(), loaded.getName());
+            assertEquals(client.getPhone(), loaded.getPhone());
+            assertEquals(client.isCompany(), loaded.isCompany());
+            assertEquals(client.getAirplaneCount(), loaded.getAirplaneCount());
+            assertEquals(client.getTickets().size(), loaded.getTickets().size());
+        }
+
+        List<Ticket> expectedTickets = new ArrayList<>(expected.bookingEngine.getTickets());
+        List<Ticket> actualTickets = new ArrayList<>(actual.bookingEngine.getTickets());
+        assertEquals(expectedTickets.size(), actualTickets.size());
+        Iterator<Ticket> loadedTickets = actualTickets.iterator();
+        for (Ticket ticket : expectedTickets) {
+            Ticket loaded = loadedTickets.next();
+            assertEquals(ticket.getNumber(), loaded.getNumber());
+            assertEquals(ticket.getFlightId(), loaded.getFlightId());
+            assertEquals(ticket.getClient().getId(), loaded.getClient().getId());
+            assertEquals(ticket.getSeat(), loaded.getSeat());
+            assertEquals(ticket.getPrice(), loaded.getPrice());
+            assertEquals(ticket.getBookedAt(), loaded.getBookedAt());
+        }
+        for (Flight.FlightDetails flightDetails : expected.flight.getFlights()) {
+            assertEquals(expected.bookingEngine.getSoldSeats(flightDetails.getId()), actual.bookingEngine.getSoldSeats(flightDetails.getId()));
+        }
+    }
+
+    static class Dataset {
+        Airport airport = new Airport();
+        Airplane airplane = new Airplane(airport);
+        Route route = new Route(airport, airplane);
+        Flight flight = new Flight(route);
+        BookingEngine bookingEngine = new BookingEngine(airplane, route, flight);
+        ClientRegistry clients = new ClientRegistry(bookingEngine);
+    }
+}